@@ -0,0 +1,270 @@
+package benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+
+import srs.Game;
+import srs.aistrategy.Evaluator;
+import srs.pieces.Piece;
+import srs.util.BitboardBoard;
+import srs.util.ChessUtilities;
+import srs.util.Fen;
+import srs.util.Move;
+import srs.util.MoveGenerator;
+import srs.util.Position;
+import srs.util.ValidateMovement;
+import srs.util.enums.PieceEnum;
+
+/*
+ * mide el rendimiento de los metodos mas usados de "ValidateMovement", "ChessUtilities" y "Board" sobre un conjunto
+ * de posiciones de medio juego y de final, reportando llamadas por segundo, bytes creados por llamada y colecciones
+ * de basura durante la medicion, para poder comparar representaciones del tablero con numeros
+ *
+ * uso: "Benchmark [milisegundos por medicion] [filtro]", donde el filtro deja solo las mediciones cuyo nombre lo contiene
+ */
+public class Benchmark {
+
+    private static final String[] MIDGAME = {
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+        "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP3PPP/R2QKB1R w KQ - 0 8",
+        "2rq1rk1/pb1nbppp/1p2pn2/2pp4/2PP4/1PN1PN2/PB2BPPP/2RQ1RK1 w - - 0 11"
+    };
+    private static final String[] ENDGAME = {
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "8/8/8/4k3/8/8/8/R3K3 w Q - 0 1",
+        "8/5pk1/6p1/7p/7P/6P1/5PK1/8 w - - 0 1",
+        "8/8/3k4/8/2QK4/8/8/8 w - - 0 1",
+        "6k1/5ppp/8/8/8/8/r4PPP/1R4K1 w - - 0 1"
+    };
+
+    private static long sink; // acumula los resultados para que el compilador no elimine las llamadas medidas
+
+    private interface Operation {
+        int run(); // retorna la cantidad de llamadas realizadas
+    }
+
+    public static void main(String[] args) {
+        long millis = args.length >= 1 ? Long.parseLong(args[0]) : 1000L;
+        String filter = args.length >= 2 ? args[1] : "";
+        Game.getInstance();
+        System.out.printf("%-22s %-8s %16s %12s %8s%n", "MEDICION", "CORPUS", "LLAMADAS/S", "BYTES/LLAMADA", "GC");
+        run("midgame", MIDGAME, millis, filter);
+        run("endgame", ENDGAME, millis, filter);
+        System.out.println("checksum: " + sink);
+    }
+
+    private static void run(String corpus, String[] positions, long millis, String filter) {
+        measure("isValidMovement", corpus, positions, millis, filter, Benchmark::isValidMovement);
+        measure("hasCollision", corpus, positions, millis, filter, Benchmark::hasCollision);
+        measure("couldCastling", corpus, positions, millis, filter, Benchmark::couldCastling);
+        measure("isAttacked", corpus, positions, millis, filter, Benchmark::isAttacked);
+        measure("isCheckmate", corpus, positions, millis, filter, fen -> () -> {
+            sink += ChessUtilities.isCheckmate() ? 1 : 0;
+            return 1;
+        });
+        measure("searchKing", corpus, positions, millis, filter, fen -> () -> {
+            sink += ChessUtilities.searchKing(Game.getPlayer()).getX();
+            return 1;
+        });
+        measure("movePiece/undoMovement", corpus, positions, millis, filter, Benchmark::movePiece);
+        measure("makeMove/unmakeMove", corpus, positions, millis, filter, Benchmark::makeMove);
+        measure("Fen.load/append", corpus, positions, millis, filter, Benchmark::fen);
+        measure("Evaluator.evaluate", corpus, positions, millis, filter, fen -> {
+            Evaluator evaluator = new Evaluator();
+            return () -> {
+                sink += evaluator.evaluate(Game.getBoard());
+                return 1;
+            };
+        });
+    }
+
+    private interface OperationFactory {
+        Operation create(String fen); // se llama con la posicion ya cargada en el tablero de "Game"
+    }
+
+    /*
+     * carga cada posicion del corpus en el tablero de "Game", calienta la operacion y luego la repite durante
+     * el tiempo indicado, midiendo los bytes creados por el hilo y las colecciones de basura de toda la jvm
+     */
+    private static void measure(String name, String corpus, String[] positions, long millis, String filter, OperationFactory factory) {
+        if (!name.contains(filter))
+            return;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long calls = 0L;
+        long elapsed = 0L;
+        long bytes = 0L;
+        long collections = 0L;
+        for (String fen : positions) {
+            Fen.load(fen, Game.getBoard());
+            Game.setPlayer(Game.getBoard().getSideToMove());
+            Operation operation = factory.create(fen);
+            loop(operation, millis / 2);
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long collectionsBefore = collections();
+            long start = System.nanoTime();
+            calls += loop(operation, millis / positions.length);
+            elapsed += System.nanoTime() - start;
+            collections += collections() - collectionsBefore;
+            bytes += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        }
+        System.out.printf("%-22s %-8s %16d %12.1f %8d%n", name, corpus, calls * 1000000000L / Math.max(elapsed, 1L), (double) bytes / Math.max(calls, 1L), collections);
+    }
+
+    private static long loop(Operation operation, long millis) {
+        long calls = 0L;
+        long deadline = System.nanoTime() + millis * 1000000L;
+        do {
+            for (int i = 0; i < 64; i++)
+                calls += operation.run();
+        } while (System.nanoTime() < deadline);
+        return calls;
+    }
+
+    private static long collections() {
+        long output = 0L;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+            output += Math.max(collector.getCollectionCount(), 0L);
+        return output;
+    }
+
+    private static Position[] squares() {
+        Position[] output = new Position[64];
+        for (int square = 0; square < 64; square++)
+            output[square] = BitboardBoard.position(square);
+        return output;
+    }
+
+    /*
+     * todas las combinaciones entre las piezas del jugador con el turno y las 64 casillas del tablero
+     */
+    private static Operation isValidMovement(String fen) {
+        Position[] squares = squares();
+        ArrayList<Position> from = new ArrayList<>();
+        ArrayList<Position> to = new ArrayList<>();
+        for (long iterator = Game.getBoard().getPieces(Game.getPlayer()); iterator != 0; iterator &= iterator-1)
+            for (int square = 0; square < 64; square++)
+                if (square != Long.numberOfTrailingZeros(iterator)) {
+                    from.add(squares[Long.numberOfTrailingZeros(iterator)]);
+                    to.add(squares[square]);
+                }
+        Position[] positionsOne = from.toArray(new Position[0]);
+        Position[] positionsTwo = to.toArray(new Position[0]);
+        return () -> {
+            for (int i = 0; i < positionsOne.length; i++)
+                sink += ValidateMovement.isValidMovement(positionsOne[i], positionsTwo[i]) ? 1 : 0;
+            return positionsOne.length;
+        };
+    }
+
+    /*
+     * todas las combinaciones entre las piezas de trayectoria larga del jugador con el turno y las 64 casillas
+     */
+    private static Operation hasCollision(String fen) {
+        Position[] squares = squares();
+        ArrayList<Position> from = new ArrayList<>();
+        ArrayList<Position> to = new ArrayList<>();
+        for (long iterator = Game.getBoard().getPieces(Game.getPlayer()); iterator != 0; iterator &= iterator-1) {
+            int square = Long.numberOfTrailingZeros(iterator);
+            if (Game.getBoard().getPiece(square).getLongMovement())
+                for (int squareTwo = 0; squareTwo < 64; squareTwo++) {
+                    from.add(squares[square]);
+                    to.add(squares[squareTwo]);
+                }
+        }
+        Position[] positionsOne = from.toArray(new Position[0]);
+        Position[] positionsTwo = to.toArray(new Position[0]);
+        return () -> {
+            for (int i = 0; i < positionsOne.length; i++)
+                sink += ValidateMovement.hasCollision(positionsOne[i], positionsTwo[i]) ? 1 : 0;
+            return Math.max(positionsOne.length, 1);
+        };
+    }
+
+    /*
+     * el rey del jugador con el turno contra cada una de sus torres
+     */
+    private static Operation couldCastling(String fen) {
+        Position king = ChessUtilities.searchKing(Game.getPlayer());
+        ArrayList<Position> rooks = new ArrayList<>();
+        for (long iterator = Game.getBoard().getPieces(Game.getPlayer(), PieceEnum.ROOK); iterator != 0; iterator &= iterator-1)
+            rooks.add(BitboardBoard.position(Long.numberOfTrailingZeros(iterator)));
+        Position[] positions = rooks.toArray(new Position[0]);
+        return () -> {
+            for (Position rook : positions)
+                sink += ValidateMovement.couldCastling(king, rook) == null ? 0 : 1;
+            return Math.max(positions.length, 1);
+        };
+    }
+
+    private static Operation isAttacked(String fen) {
+        Position[] squares = squares();
+        return () -> {
+            for (Position square : squares)
+                sink += ChessUtilities.isAttacked(square) ? 1 : 0;
+            return squares.length;
+        };
+    }
+
+    /*
+     * carga la posicion en un tablero aparte y la vuelve a escribir
+     */
+    private static Operation fen(String fen) {
+        BitboardBoard board = new BitboardBoard();
+        StringBuilder output = new StringBuilder(90);
+        return () -> {
+            Fen.load(fen, board);
+            output.setLength(0);
+            Fen.append(board, output);
+            sink += output.length();
+            return 1;
+        };
+    }
+
+    /*
+     * realiza y deshace cada movimiento legal, incluyendo capturas, enroques y promociones
+     */
+    private static Operation makeMove(String fen) {
+        BitboardBoard board = Game.getBoard();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateMoves(board, moves);
+        return () -> {
+            for (int i = 0; i < count; i++) {
+                board.makeMove(moves[i]);
+                sink += board.getKey();
+                board.unmakeMove(moves[i]);
+            }
+            return Math.max(count, 1);
+        };
+    }
+
+    /*
+     * mueve y deshace cada movimiento legal sin captura, enroque ni promocion, ya que "undoMovement" no repone piezas
+     */
+    private static Operation movePiece(String fen) {
+        BitboardBoard board = Game.getBoard();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateMoves(board, moves);
+        ArrayList<Position> from = new ArrayList<>();
+        ArrayList<Position> to = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            if (!Move.isCapture(moves[i]) && !Move.isCastling(moves[i]) && !Move.isPromotion(moves[i])) {
+                from.add(BitboardBoard.position(Move.from(moves[i])));
+                to.add(BitboardBoard.position(Move.to(moves[i])));
+            }
+        Position[] positionsOne = from.toArray(new Position[0]);
+        Position[] positionsTwo = to.toArray(new Position[0]);
+        return () -> {
+            for (int i = 0; i < positionsOne.length; i++) {
+                Piece piece = board.getPiece(positionsOne[i]);
+                boolean wasMoved = piece.getWasMoved();
+                board.movePiece(positionsOne[i], positionsTwo[i]);
+                board.undoMovement(positionsTwo[i], positionsOne[i], wasMoved);
+            }
+            return Math.max(positionsOne.length, 1);
+        };
+    }
+}
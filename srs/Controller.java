@@ -2,25 +2,34 @@ package srs;
 
 import java.util.Scanner;
 
+import srs.aistrategy.AIStrategy;
+import srs.aistrategy.SearchLimits;
+import srs.aistrategy.Strategy1;
 import srs.exception.InvalidPositionException;
 import srs.userinterface.UserInterface;
 import srs.userinterface.UserInterfaceConsole;
 import srs.userinterface.UserInterfaceWindows;
 import srs.util.ChessUtilities;
+import srs.util.Move;
+import srs.util.MoveGenerator;
 import srs.util.Movement;
 import srs.util.Position;
 import srs.util.ValidateMovement;
-import srs.util.enums.CastlingCornerEnum;
 import srs.util.enums.ColorEnum;
 
 public class Controller {
 
     private static Controller instance;
     private static UserInterface userInterface;
+    private static AIStrategy[] strategies = new AIStrategy[ColorEnum.values().length]; // indexada por "color.ordinal()", null si juega un humano
+    private static SearchLimits limits = SearchLimits.time(3000);
+    private static int[] moves = new int[MoveGenerator.MAX_MOVES];
 
     private Controller() {
         askForUserInterface();
+        askForPlayers();
         Game.getInstance();
+        Game.getSession().setUserInterface(userInterface);
         Game.initializePieces();
     }
 
@@ -32,7 +41,7 @@ public class Controller {
 
     /*
      * pide por consola al usuario que ingrese que metodo de visualizacion quiere ejecutar,
-     * luego instancia la "userInterface" en "console" o en "windows"
+     * luego instancia la "userInterface" en "console", en "console" diferencial o en "windows"
      */
     private static void askForUserInterface() {
         System.out.print("\033[H\033[2J");
@@ -43,6 +52,7 @@ public class Controller {
         System.out.println("||   ||                       ||   ||");
         System.out.println("||   ||   '1' ----> Consola   ||   ||");
         System.out.println("||   ||   '2' ----> Ventana   ||   ||");
+        System.out.println("||   ||   '3' ----> Compacta  ||   ||");
         System.out.println("||   ||   (default) Consola   ||   ||");
         System.out.println("||   ||                       ||   ||");
         System.out.println("||===||=======================||===||");
@@ -51,59 +61,85 @@ public class Controller {
         switch (input) {
             case "1" -> userInterface = new UserInterfaceConsole();
             case "2" -> userInterface = new UserInterfaceWindows();
+            case "3" -> userInterface = new UserInterfaceConsole(true);
             default -> userInterface = new UserInterfaceConsole();
         }
     }
 
+    /*
+     * pide por consola al usuario que ingrese que colores juega la computadora
+     */
+    private static void askForPlayers() {
+        System.out.print("\033[H\033[2J");
+        System.out.flush();
+        System.out.println("||===||=======================||===||");
+        System.out.println("||   ||                       ||   ||");
+        System.out.println("||   ||   JUGADORES:          ||   ||");
+        System.out.println("||   ||                       ||   ||");
+        System.out.println("||   ||   '1' ----> 2 humanos ||   ||");
+        System.out.println("||   ||   '2' ----> IA negra  ||   ||");
+        System.out.println("||   ||   '3' ----> IA blanca ||   ||");
+        System.out.println("||   ||   '4' ----> 2 IA      ||   ||");
+        System.out.println("||   ||   (default) 2 humanos ||   ||");
+        System.out.println("||   ||                       ||   ||");
+        System.out.println("||===||=======================||===||");
+        System.out.print("\nSeleccion: ");
+        String input = new Scanner(System.in).nextLine();
+        switch (input) {
+            case "2" -> setStrategy(ColorEnum.BLACK, new Strategy1());
+            case "3" -> setStrategy(ColorEnum.WHITE, new Strategy1());
+            case "4" -> {
+                setStrategy(ColorEnum.WHITE, new Strategy1());
+                setStrategy(ColorEnum.BLACK, new Strategy1());
+            }
+            default -> {
+                // VOID
+            }
+        }
+    }
+
     /*
      * es el metodo que se encarga de recopilar lo necesario para realizar el movimiento, validarlo
-     * y en caso de cumplir con un movimiento valido, ejecutarlo
+     * y en caso de cumplir con un movimiento valido, ejecutarlo, retorna false sin mover si el jugador con el turno
+     * no tiene movimientos legales, ya sea por jaquemate o por ahogado, lo que termina la partida
      */
-    public static void movePiece() {
-        boolean takePiece;
+    public static boolean movePiece() {
+        GameSession session = Game.getSession();
+        int count = MoveGenerator.generateMoves(session.getBoard(), moves);
+        if (count == 0)
+            return false;
+        AIStrategy strategy = strategies[session.getPlayer().ordinal()];
+        if (strategy != null) { // si el jugador es la computadora, se le pide el movimiento al motor en lugar de la interfaz
+            int move = strategy.bestMove(session.getBoard(), limits);
+            session.movePiece(move != Move.NONE ? move : moves[0]);
+            return true;
+        }
         boolean isValidMovement;
         do {
-            takePiece = false;
             isValidMovement = false;
             Movement movement = requestMovement();
             Position positionOne = movement.getPositionOne();
             Position positionTwo = movement.getPositionTwo();
-            if (Game.getBoard().getPiece(positionTwo) != null) {
-                CastlingCornerEnum couldCastling = ValidateMovement.couldCastling(positionOne, positionTwo);
-                if (couldCastling != null) {
-                    Game.performCastling(positionOne, positionTwo, couldCastling);
-                    isValidMovement = true;
-                }
-                else if (ValidateMovement.couldTakeAPiece(positionOne, positionTwo)) {
-                    if (Game.getPlayer().equals(ColorEnum.BLACK))
-                        Game.getWhitePiecesTaken().add(Game.getBoard().getPiece(positionTwo));
-                    else
-                        Game.getBlackPiecesTaken().add(Game.getBoard().getPiece(positionTwo));
-                    Game.getMovements().add(movement);
-                    Game.getBoard().movePiece(positionOne, positionTwo);
-                    takePiece = true;
-                    isValidMovement = true;
-                }
-            }
-            else if (ValidateMovement.isValidMovement(positionOne, positionTwo)) {
-                Game.getMovements().add(movement);
-                Game.getBoard().movePiece(positionOne, positionTwo);
-                isValidMovement = true;
-            }
-            if (ChessUtilities.isCheck()) {
-                userInterface.checkMessage();
-                Game.undoLastMove();
+            if (session.getBoard().getPiece(positionTwo) != null)
+                isValidMovement = ValidateMovement.couldCastling(session, positionOne, positionTwo) != null
+                        || ValidateMovement.couldTakeAPiece(session, positionOne, positionTwo);
+            else
+                isValidMovement = ValidateMovement.isValidMovement(session, positionOne, positionTwo);
+            int move = isValidMovement ? session.findMove(positionOne, positionTwo) : Move.NONE;
+            if (move == Move.NONE)
                 isValidMovement = false;
+            else {
+                session.movePiece(move);
+                if (ChessUtilities.isCheck(session)) { // el movimiento deja al rey propio en jaque, se deshace por completo
+                    userInterface.checkMessage();
+                    session.undoLastMove();
+                    isValidMovement = false;
+                }
             }
-            if (!isValidMovement) {
+            if (!isValidMovement)
                 userInterface.invalidMovementMessage();
-                if (takePiece)
-                    if (Game.getPlayer().equals(ColorEnum.BLACK))
-                        Game.getWhitePiecesTaken().remove(Game.getWhitePiecesTaken().size()-1);
-                    else
-                        Game.getBlackPiecesTaken().remove(Game.getBlackPiecesTaken().size()-1);
-            }
         } while (!isValidMovement);
+        return true;
     }
 
     /*
@@ -165,4 +201,16 @@ public class Controller {
     public static UserInterface getUserInterface() {
         return userInterface;
     }
+
+    public static AIStrategy getStrategy(ColorEnum color) {
+        return strategies[color.ordinal()];
+    }
+
+    public static void setStrategy(ColorEnum color, AIStrategy strategy) {
+        strategies[color.ordinal()] = strategy;
+    }
+
+    public static void setLimits(SearchLimits limits) {
+        Controller.limits = limits;
+    }
 }
@@ -0,0 +1,224 @@
+package srs;
+
+import java.util.ArrayList;
+
+import srs.pieces.Piece;
+import srs.userinterface.UserInterface;
+import srs.util.BitboardBoard;
+import srs.util.Fen;
+import srs.util.GameRecord;
+import srs.util.Move;
+import srs.util.MoveGenerator;
+import srs.util.Movement;
+import srs.util.Position;
+import srs.util.enums.ColorEnum;
+import srs.util.enums.PieceEnum;
+
+/*
+ * estado completo de una partida: tablero, jugador con el turno, movimientos realizados y piezas tomadas,
+ * cada partida tiene su propia sesion, por lo que varias partidas pueden jugarse a la vez en distintos hilos
+ * siempre que cada sesion se use desde un unico hilo a la vez
+ */
+public class GameSession {
+
+    private BitboardBoard board;
+    private ColorEnum player;
+    private ArrayList<Piece> blackPiecesTaken;
+    private ArrayList<Piece> whitePiecesTaken;
+    private GameRecord record; // historial compacto de los movimientos realizados
+    private UserInterface userInterface; // a quien se le pide la pieza de una promocion, si es null se promociona a dama
+    private int[] buffer; // movimientos generados por "findMove"
+
+    public GameSession() {
+        this(new BitboardBoard());
+    }
+
+    public GameSession(BitboardBoard board) {
+        this.board = board;
+        player = board.getSideToMove();
+        blackPiecesTaken = new ArrayList<>();
+        whitePiecesTaken = new ArrayList<>();
+        record = new GameRecord();
+        buffer = new int[MoveGenerator.MAX_MOVES];
+        startRecord();
+    }
+
+    /*
+     * inicializa todas las piezas de ajedrez en sus posiciones
+     */
+    public void initializePieces() {
+        Fen.load(Fen.START_POSITION, board);
+        player = board.getSideToMove();
+        blackPiecesTaken.clear();
+        whitePiecesTaken.clear();
+        startRecord();
+    }
+
+    /*
+     * vacia el historial compacto tomando la posicion actual del tablero como posicion inicial de la partida
+     */
+    public void startRecord() {
+        record.clear();
+        String fen = Fen.toString(board);
+        if (!fen.equals(Fen.START_POSITION))
+            record.setStartFen(fen);
+    }
+
+    /*
+     * alterna entre jugador de color "white" y "black"
+     */
+    public void changePlayer() {
+        if (player.equals(ColorEnum.WHITE))
+            player = ColorEnum.BLACK;
+        else
+            player = ColorEnum.WHITE;
+        board.setSideToMove(player);
+    }
+
+    /*
+     * realiza el movimiento entre las 2 posiciones que se pasan por parametro, dando por supuesto que se cumplen
+     * previamente las condiciones necesarias para realizarlo, si la segunda posicion es una torre propia
+     * se realiza el enroque, si el movimiento no corresponde a ninguna pieza no se hace nada
+     */
+    public void movePiece(Position positionOne, Position positionTwo) {
+        int move = findMove(positionOne, positionTwo);
+        if (move != Move.NONE)
+            movePiece(move);
+    }
+
+    /*
+     * realiza un movimiento empaquetado generado por "MoveGenerator", como los que retorna "AIStrategy",
+     * agregando la pieza capturada a la lista de piezas tomadas
+     */
+    public void movePiece(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        record.add(move);
+        if (Move.isEnPassant(move))
+            addPieceTaken(board.getPiece(BitboardBoard.square(to & 7, from >>> 3)));
+        else if (Move.isCapture(move))
+            addPieceTaken(board.getPiece(to));
+        board.makeMove(move);
+    }
+
+    /*
+     * retorna el movimiento empaquetado del jugador con el turno entre las 2 posiciones, o "Move.NONE" si no hay ninguno,
+     * el movimiento puede dejar al rey propio en jaque, si una posicion tiene el rey y la otra una torre propia
+     * se interpreta como enroque en cualquier orden, y si es una promocion se pide la pieza a la interfaz o se promociona a dama
+     */
+    public int findMove(Position positionOne, Position positionTwo) {
+        int from = BitboardBoard.square(positionOne);
+        int to = BitboardBoard.square(positionTwo);
+        Piece piece = board.getPiece(from);
+        Piece target = board.getPiece(to);
+        if (piece != null && target != null && piece.getColorOfPiece().equals(target.getColorOfPiece())) {
+            if (piece.getNameOfPiece().equals(PieceEnum.KING) && target.getNameOfPiece().equals(PieceEnum.ROOK))
+                to = to > from ? from + 2 : from - 2;
+            else if (piece.getNameOfPiece().equals(PieceEnum.ROOK) && target.getNameOfPiece().equals(PieceEnum.KING)) {
+                int king = to;
+                to = from > king ? king + 2 : king - 2;
+                from = king;
+            }
+        }
+        int count = MoveGenerator.generatePseudoLegalMoves(board, buffer);
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            if (Move.from(move) != from || Move.to(move) != to)
+                continue;
+            if (!Move.isPromotion(move))
+                return move;
+            PieceEnum promotion = userInterface != null ? userInterface.requestToChoosePiece().getNameOfPiece() : PieceEnum.QUEEN;
+            for (int j = i; j < count; j++)
+                if (Move.from(buffer[j]) == from && Move.to(buffer[j]) == to && Move.promotion(buffer[j]) == promotion.ordinal())
+                    return buffer[j];
+            return move;
+        }
+        return Move.NONE;
+    }
+
+    /*
+     * deshace el ultimo movimiento que se ejecuto en la partida, incluyendo la torre del enroque, la pieza capturada,
+     * que vuelve al tablero y sale de la lista de piezas tomadas, los enroques, la captura al paso y la clave,
+     * el turno vuelve al jugador que realizo el movimiento
+     */
+    public void undoLastMove() {
+        if (record.size() == 0)
+            return;
+        int move = board.unmakeLastMove();
+        record.removeLast();
+        player = board.getSideToMove();
+        if (Move.isCapture(move)) {
+            ArrayList<Piece> piecesTaken = player.equals(ColorEnum.WHITE) ? blackPiecesTaken : whitePiecesTaken;
+            piecesTaken.remove(piecesTaken.size()-1);
+        }
+    }
+
+    /*
+     * retorna los movimientos realizados reproduciendo el historial compacto desde la posicion inicial en un tablero
+     * aparte, la lista se arma en cada llamada y no refleja los movimientos que se hagan despues
+     */
+    public ArrayList<Movement> getMovements() {
+        ArrayList<Movement> movements = new ArrayList<>(record.size());
+        BitboardBoard replay = Fen.load(record.getStartFen() != null ? record.getStartFen() : Fen.START_POSITION);
+        for (int i = 0; i < record.size(); i++) {
+            int move = GameRecord.fromShort(replay, record.getMove(i), buffer);
+            if (move == Move.NONE)
+                break;
+            int from = Move.from(move);
+            movements.add(new Movement(BitboardBoard.position(from), BitboardBoard.position(Move.to(move)), replay.getPiece(from).getWasMoved()));
+            replay.makeMove(move);
+        }
+        return movements;
+    }
+
+    /*
+     * agrega la pieza a la lista de piezas tomadas de su color
+     */
+    public void addPieceTaken(Piece piece) {
+        if (piece.getColorOfPiece().equals(ColorEnum.BLACK))
+            blackPiecesTaken.add(piece);
+        else
+            whitePiecesTaken.add(piece);
+    }
+
+    // GETTERS & SETTERS
+
+    public BitboardBoard getBoard() {
+        return board;
+    }
+
+    public ColorEnum getPlayer() {
+        return player;
+    }
+
+    public void setPlayer(ColorEnum player) {
+        this.player = player;
+        board.setSideToMove(player);
+    }
+
+    public ColorEnum getOpponent() {
+        if (player.equals(ColorEnum.BLACK))
+            return ColorEnum.WHITE;
+        return ColorEnum.BLACK;
+    }
+
+    public ArrayList<Piece> getBlackPiecesTaken() {
+        return blackPiecesTaken;
+    }
+
+    public ArrayList<Piece> getWhitePiecesTaken() {
+        return whitePiecesTaken;
+    }
+
+    public GameRecord getRecord() {
+        return record;
+    }
+
+    public UserInterface getUserInterface() {
+        return userInterface;
+    }
+
+    public void setUserInterface(UserInterface userInterface) {
+        this.userInterface = userInterface;
+    }
+}
@@ -1,12 +1,34 @@
 package srs;
 
+import java.util.Arrays;
+
+import srs.selfplay.SelfPlay;
+import srs.server.GameServer;
+import srs.userinterface.UserInterfaceUCI;
 import srs.util.ChessUtilities;
 
 public class Main {
 
+    /*
+     * sin argumentos juega una partida por consola o ventana, "server [puerto] [sesiones maximas] [segundos de inactividad]"
+     * levanta el servidor de partidas sin interfaz grafica, "uci" atiende el protocolo uci por la entrada estandar,
+     * y "selfplay ..." juega partidas entre estrategias sin interfaz, con los argumentos de "SelfPlay"
+     */
     public static void main(String[] args) throws Exception {
-
+        if (args.length >= 1 && args[0].equals("server")) {
+            GameServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length >= 1 && args[0].equals("uci")) {
+            UserInterfaceUCI.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length >= 1 && args[0].equals("selfplay")) {
+            SelfPlay.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         Controller.getInstance();
+        boolean moved;
         do {
             Controller.getUserInterface().cleanScreen();
             Controller.getUserInterface().showBoard();
@@ -15,11 +37,17 @@ public class Main {
             Controller.getUserInterface().insertVoidLine(2);
             Controller.getUserInterface().playerTurnMessage();
             Controller.getUserInterface().insertVoidLine(1);
-            Controller.movePiece();
-            Game.changePlayer();
-        } while (!ChessUtilities.isCheckmate());
+            Controller.getUserInterface().showScreen();
+            moved = Controller.movePiece();
+            if (moved)
+                Game.changePlayer();
+        } while (moved && !ChessUtilities.isCheckmate());
         Controller.getUserInterface().cleanScreen();
-        Controller.getUserInterface().winnerMessage();
+        if (moved || ChessUtilities.isCheck())
+            Controller.getUserInterface().winnerMessage();
+        else
+            Controller.getUserInterface().drawMessage();
         Controller.getUserInterface().insertVoidLine(1);
+        Controller.getUserInterface().showScreen();
     }
 }
@@ -1,5 +1,277 @@
 package srs.aistrategy;
 
+import java.util.concurrent.ThreadLocalRandom;
+
+import srs.book.OpeningBook;
+import srs.tablebase.Tablebase;
+import srs.util.BitboardBoard;
+import srs.util.Move;
+import srs.util.MoveGenerator;
+import srs.util.enums.ColorEnum;
+
+/*
+ * motor de busqueda: recibe una posicion y unos limites y retorna el mejor movimiento empaquetado que encontro,
+ * o "Move.NONE" si el jugador con el turno no tiene movimientos legales, cada estrategia implementa "search"
+ * y puede usar la quiescencia, la evaluacion y el control de limites que se comparten aca
+ */
 public abstract class AIStrategy {
-    
+
+    public static final int INFINITE = 32000;
+    public static final int MATE = 31000; // un mate en "n" medio movimientos vale "MATE - n"
+    public static final int MAX_PLY = 128;
+
+    protected static final int[] PIECE_VALUES = {100, 0, 900, 330, 320, 500}; // indexada por "PieceEnum.ordinal()"
+
+    protected BitboardBoard board;
+    protected SearchLimits limits;
+    protected int[][] moves; // un buffer de movimientos por ply
+    protected int[][] scores; // el valor de ordenamiento de cada movimiento del buffer
+    protected long nodes;
+    protected int bestScore;
+    protected int depthReached;
+    protected Evaluator evaluator;
+    protected Tablebase tablebase; // null si no hay tablas de finales
+    protected OpeningBook book; // null si no hay libro de aperturas
+    protected long tablebaseHits;
+    protected int[] tablebaseBuffer; // arreglo de trabajo de las consultas a las tablas de finales
+    private long startTime;
+    private long endTime;
+    private long deadline;
+    private volatile boolean stopped;
+
+    public AIStrategy() {
+        moves = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+        scores = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+        evaluator = new Evaluator();
+        tablebaseBuffer = new int[Tablebase.MAX_PIECES];
+    }
+
+    /*
+     * busca el mejor movimiento para el jugador con el turno en el tablero, el cual se modifica durante la busqueda
+     * pero queda en el mismo estado al terminar, si la posicion esta en el libro de aperturas o en las tablas de finales
+     * se juega su movimiento sin buscar, del libro se elige uno al azar segun su peso
+     */
+    public int bestMove(BitboardBoard position, SearchLimits limits) {
+        this.board = position;
+        this.limits = limits;
+        nodes = 0L;
+        bestScore = 0;
+        depthReached = 0;
+        stopped = false;
+        startTime = System.nanoTime();
+        endTime = 0L;
+        deadline = limits.getMillis() > 0 ? startTime + limits.getMillis() * 1000000L : Long.MAX_VALUE;
+        tablebaseHits = 0L;
+        int output = book != null ? book.choose(position, ThreadLocalRandom.current(), moves[0]) : Move.NONE;
+        if (output == Move.NONE && tablebase != null) {
+            output = tablebase.bestMove(position);
+            if (output != Move.NONE) {
+                tablebaseHits++;
+                bestScore = tablebaseScore(tablebase.probe(position, tablebaseBuffer), 0);
+            }
+        }
+        if (output == Move.NONE)
+            output = search();
+        endTime = System.nanoTime();
+        return output;
+    }
+
+    protected abstract int search();
+
+    /*
+     * detiene la busqueda en curso lo antes posible, puede llamarse desde otro hilo
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /*
+     * retorna un booleano indicando si se alcanzo algun limite, el reloj se consulta cada 1024 nodos
+     */
+    protected boolean shouldStop() {
+        if (stopped)
+            return true;
+        if ((nodes & 1023) == 0) {
+            if ((limits.getNodes() > 0 && nodes >= limits.getNodes()) || System.nanoTime() >= deadline)
+                stopped = true;
+        }
+        return stopped;
+    }
+
+    /*
+     * profundidad maxima a buscar segun los limites, sin limite de profundidad se busca hasta que se corte por tiempo o nodos
+     */
+    protected int maxDepth() {
+        if (limits.getDepth() > 0)
+            return Math.min(limits.getDepth(), MAX_PLY - 1);
+        if (limits.getNodes() > 0 || limits.getMillis() > 0)
+            return MAX_PLY - 1;
+        return 4;
+    }
+
+    /*
+     * evaluacion estatica desde el punto de vista del jugador con el turno
+     */
+    protected int evaluate() {
+        return evaluator.evaluate(board);
+    }
+
+    /*
+     * valor de busqueda de un resultado de las tablas de finales a "ply" de la raiz, los mates demasiado lejanos
+     * para expresarse como mate en "n" valen apenas menos que cualquier mate
+     */
+    protected int tablebaseScore(int value, int ply) {
+        if (value == Tablebase.DRAW)
+            return 0;
+        int distance = ply + Tablebase.distance(value);
+        int output = distance < MAX_PLY ? MATE - distance : MATE - MAX_PLY - 1;
+        return Tablebase.isWin(value) ? output : -output;
+    }
+
+    protected boolean inCheck() {
+        ColorEnum player = board.getSideToMove();
+        return board.getAttackMap().isAttacked(BitboardBoard.opponent(player), board.kingSquare(player));
+    }
+
+    /*
+     * sigue buscando solo capturas y promociones hasta llegar a una posicion tranquila, para que la evaluacion
+     * no se haga en medio de un intercambio de piezas
+     */
+    protected int quiescence(int alpha, int beta, int ply) {
+        nodes++;
+        if (shouldStop())
+            return 0;
+        int standPat = evaluate();
+        if (standPat >= beta || ply >= MAX_PLY)
+            return standPat;
+        if (standPat > alpha)
+            alpha = standPat;
+        int[] buffer = moves[ply];
+        int count = MoveGenerator.generateMoves(board, buffer);
+        int captures = 0;
+        for (int i = 0; i < count; i++)
+            if (Move.isCapture(buffer[i]) || Move.isPromotion(buffer[i]))
+                buffer[captures++] = buffer[i];
+        scoreMoves(ply, captures, Move.NONE);
+        for (int i = 0; i < captures; i++) {
+            int move = pickMove(ply, i, captures);
+            board.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            board.unmakeMove(move);
+            if (stopped)
+                return 0;
+            if (score >= beta)
+                return score;
+            if (score > alpha)
+                alpha = score;
+        }
+        return alpha;
+    }
+
+    /*
+     * asigna a cada movimiento del buffer un valor de ordenamiento: primero el movimiento de la tabla de transposicion,
+     * luego las capturas de la pieza mas valiosa con la menos valiosa (mvv-lva) y las promociones, y al final el resto
+     */
+    protected void scoreMoves(int ply, int count, int hashMove) {
+        for (int i = 0; i < count; i++) {
+            int move = moves[ply][i];
+            if (move == hashMove)
+                scores[ply][i] = 1 << 30;
+            else if (Move.isCapture(move) || Move.isPromotion(move))
+                scores[ply][i] = (1 << 20) + captureScore(move);
+            else
+                scores[ply][i] = quietScore(ply, move);
+        }
+    }
+
+    protected int captureScore(int move) {
+        int output = 0;
+        if (Move.isCapture(move))
+            output += PIECE_VALUES[Move.captured(move)] * 16 - PIECE_VALUES[Move.piece(move)] / 16;
+        if (Move.isPromotion(move))
+            output += PIECE_VALUES[Move.promotion(move)];
+        return output;
+    }
+
+    /*
+     * valor de ordenamiento de los movimientos sin captura, las estrategias lo redefinen para usar sus heuristicas
+     */
+    protected int quietScore(int ply, int move) {
+        return 0;
+    }
+
+    /*
+     * seleccion parcial: lleva a la posicion "index" el movimiento con mayor valor entre los que quedan y lo retorna,
+     * para no ordenar movimientos que no se llegan a recorrer si hay un corte
+     */
+    protected int pickMove(int ply, int index, int count) {
+        int[] buffer = moves[ply];
+        int[] values = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < count; i++)
+            if (values[i] > values[best])
+                best = i;
+        int move = buffer[best];
+        buffer[best] = buffer[index];
+        buffer[index] = move;
+        int value = values[best];
+        values[best] = values[index];
+        values[index] = value;
+        return move;
+    }
+
+    // GETTERS & SETTERS
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getNodesPerSecond() {
+        return getNodes() * 1000L / Math.max(getElapsedMillis(), 1L);
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    public int getDepthReached() {
+        return depthReached;
+    }
+
+    public long getElapsedMillis() {
+        long end = endTime != 0 ? endTime : System.nanoTime();
+        return (end - startTime) / 1000000L;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    public long getTablebaseHits() {
+        return tablebaseHits;
+    }
+
+    public Tablebase getTablebase() {
+        return tablebase;
+    }
+
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    public OpeningBook getBook() {
+        return book;
+    }
+
+    public void setBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    public void setEvaluator(Evaluator evaluator) {
+        this.evaluator = evaluator;
+    }
 }
@@ -0,0 +1,215 @@
+package srs.aistrategy;
+
+import srs.util.AttackTables;
+import srs.util.BitboardBoard;
+import srs.util.PieceSquareTables;
+import srs.util.enums.ColorEnum;
+import srs.util.enums.PieceEnum;
+
+/*
+ * evaluacion estatica de una posicion: material y tablas de casillas, que el tablero mantiene en forma incremental,
+ * mas estructura de peones, movilidad, pareja de alfiles y seguridad del rey, cada termino tiene un valor para el medio
+ * juego y otro para el final, y el resultado se interpola segun la fase de la partida
+ *
+ * la estructura de peones se guarda en una "PawnHashTable" y solo se calcula cuando los peones cambian,
+ * cada instancia guarda resultados intermedios y su propia tabla, por lo que cada hilo de busqueda debe usar la suya
+ */
+public class Evaluator {
+
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long FILE_H = 0x8080808080808080L;
+
+    private static final int[] PASSED_MIDGAME = {0, 5, 10, 15, 25, 40, 60, 0}; // indexada por fila relativa, 1 es la fila inicial
+    private static final int[] PASSED_ENDGAME = {0, 10, 15, 25, 45, 75, 120, 0};
+    private static final int DOUBLED_MIDGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int BISHOP_PAIR_MIDGAME = 30;
+    private static final int BISHOP_PAIR_ENDGAME = 50;
+    private static final int SHIELD_NEAR = 10; // peon propio justo delante del rey, o en diagonal
+    private static final int SHIELD_FAR = 5; // peon propio a 2 filas del rey
+    private static final int PAWN_TABLE_ENTRIES = 1 << 14;
+
+    // indexadas por "PieceEnum.ordinal()", solo se usan caballo, alfil, torre y dama
+    private static final int[] MOBILITY_MIDGAME = {0, 0, 1, 5, 4, 2};
+    private static final int[] MOBILITY_ENDGAME = {0, 0, 2, 5, 4, 4};
+    private static final int[] MOBILITY_BASE = {0, 0, 13, 6, 4, 7}; // casillas esperables, por debajo la movilidad resta
+    private static final int[] ATTACK_WEIGHTS = {0, 0, 5, 2, 2, 3}; // por cada casilla atacada alrededor del rey rival
+    private static final PieceEnum[] MOBILE_PIECES = {PieceEnum.KNIGHT, PieceEnum.BISHOP, PieceEnum.ROOK, PieceEnum.QUEEN};
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    private static final long[][] PASSED = new long[BitboardBoard.COLORS][BitboardBoard.SQUARES]; // casillas por delante en la misma columna y las adyacentes
+    private static final long[][] SHIELD_NEAR_SQUARES = new long[BitboardBoard.COLORS][BitboardBoard.SQUARES];
+    private static final long[][] SHIELD_FAR_SQUARES = new long[BitboardBoard.COLORS][BitboardBoard.SQUARES];
+
+    static {
+        for (int x = 0; x < 8; x++)
+            FILES[x] = FILE_A << x;
+        for (int x = 0; x < 8; x++)
+            ADJACENT_FILES[x] = (x > 0 ? FILES[x - 1] : 0L) | (x < 7 ? FILES[x + 1] : 0L);
+        for (int square = 0; square < BitboardBoard.SQUARES; square++) {
+            int x = square & 7;
+            int y = square >>> 3;
+            long files = FILES[x] | ADJACENT_FILES[x];
+            for (int row = 0; row < 8; row++) {
+                long rowMask = 0xFFL << (row << 3);
+                if (row < y)
+                    PASSED[ColorEnum.WHITE.ordinal()][square] |= files & rowMask;
+                if (row > y)
+                    PASSED[ColorEnum.BLACK.ordinal()][square] |= files & rowMask;
+                if (row == y - 1)
+                    SHIELD_NEAR_SQUARES[ColorEnum.WHITE.ordinal()][square] = files & rowMask;
+                if (row == y - 2)
+                    SHIELD_FAR_SQUARES[ColorEnum.WHITE.ordinal()][square] = files & rowMask;
+                if (row == y + 1)
+                    SHIELD_NEAR_SQUARES[ColorEnum.BLACK.ordinal()][square] = files & rowMask;
+                if (row == y + 2)
+                    SHIELD_FAR_SQUARES[ColorEnum.BLACK.ordinal()][square] = files & rowMask;
+            }
+        }
+    }
+
+    // acumuladores de la evaluacion en curso, desde el punto de vista de las blancas
+    private int midgame;
+    private int endgame;
+    private PawnHashTable pawnTable;
+
+    public Evaluator() {
+        this(new PawnHashTable(PAWN_TABLE_ENTRIES));
+    }
+
+    public Evaluator(PawnHashTable pawnTable) {
+        midgame = 0;
+        endgame = 0;
+        this.pawnTable = pawnTable;
+    }
+
+    /*
+     * retorna la evaluacion en centipeones desde el punto de vista del jugador con el turno
+     */
+    public int evaluate(BitboardBoard board) {
+        long pawnKey = board.getPawnKey();
+        int pawns = pawnTable.probe(pawnKey);
+        if (pawns == PawnHashTable.MISS) {
+            midgame = 0;
+            endgame = 0;
+            evaluatePawns(board.getPieces(ColorEnum.WHITE, PieceEnum.PAWN), board.getPieces(ColorEnum.BLACK, PieceEnum.PAWN));
+            pawns = PawnHashTable.pack(midgame, endgame);
+            pawnTable.store(pawnKey, pawns);
+        }
+        midgame = board.getMidgameScore() + PawnHashTable.midgame(pawns);
+        endgame = board.getEndgameScore() + PawnHashTable.endgame(pawns);
+        evaluatePieces(board, ColorEnum.WHITE, 1);
+        evaluatePieces(board, ColorEnum.BLACK, -1);
+        int phase = Math.min(board.getPhase(), PieceSquareTables.MAX_PHASE);
+        int output = (midgame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return board.getSideToMove().equals(ColorEnum.WHITE) ? output : -output;
+    }
+
+    /*
+     * peones doblados, aislados y pasados de ambos colores, solo depende de la ubicacion de los peones
+     */
+    protected void evaluatePawns(long whitePawns, long blackPawns) {
+        evaluatePawns(ColorEnum.WHITE, whitePawns, blackPawns, 1);
+        evaluatePawns(ColorEnum.BLACK, blackPawns, whitePawns, -1);
+    }
+
+    private void evaluatePawns(ColorEnum color, long own, long enemies, int sign) {
+        for (int x = 0; x < 8; x++) {
+            int count = Long.bitCount(own & FILES[x]);
+            if (count == 0)
+                continue;
+            if (count > 1) {
+                midgame += sign * DOUBLED_MIDGAME * (count - 1);
+                endgame += sign * DOUBLED_ENDGAME * (count - 1);
+            }
+            if ((own & ADJACENT_FILES[x]) == 0) {
+                midgame += sign * ISOLATED_MIDGAME * count;
+                endgame += sign * ISOLATED_ENDGAME * count;
+            }
+        }
+        long[] passed = PASSED[color.ordinal()];
+        for (long iterator = own; iterator != 0; iterator &= iterator-1) {
+            int square = Long.numberOfTrailingZeros(iterator);
+            if ((passed[square] & enemies) == 0) {
+                int row = color.equals(ColorEnum.WHITE) ? 7 - (square >>> 3) : square >>> 3;
+                midgame += sign * PASSED_MIDGAME[row];
+                endgame += sign * PASSED_ENDGAME[row];
+            }
+        }
+    }
+
+    /*
+     * movilidad de caballos, alfiles, torres y damas sobre las casillas que no ocupan piezas propias ni atacan peones rivales,
+     * pareja de alfiles, escudo de peones del rey propio y presion sobre las casillas que rodean al rey rival
+     */
+    private void evaluatePieces(BitboardBoard board, ColorEnum color, int sign) {
+        ColorEnum opponent = BitboardBoard.opponent(color);
+        long occupied = board.getOccupied();
+        long area = ~board.getPieces(color) & ~pawnAttacks(opponent, board.getPieces(opponent, PieceEnum.PAWN));
+        int enemyKing = board.kingSquare(opponent);
+        long kingZone = enemyKing >= 0 ? AttackTables.kingAttacks(enemyKing) | (1L << enemyKing) : 0L;
+        int attackers = 0;
+        int attackWeight = 0;
+        for (PieceEnum name : MOBILE_PIECES) {
+            int type = name.ordinal();
+            for (long iterator = board.getPieces(color, name); iterator != 0; iterator &= iterator-1) {
+                int square = Long.numberOfTrailingZeros(iterator);
+                long attacks = attacks(name, square, occupied);
+                int mobility = Long.bitCount(attacks & area) - MOBILITY_BASE[type];
+                midgame += sign * MOBILITY_MIDGAME[type] * mobility;
+                endgame += sign * MOBILITY_ENDGAME[type] * mobility;
+                if ((attacks & kingZone) != 0) {
+                    attackers++;
+                    attackWeight += ATTACK_WEIGHTS[type] * Long.bitCount(attacks & kingZone);
+                }
+            }
+        }
+        if (attackers > 1)
+            midgame += sign * Math.min(attackWeight * attackWeight / 4, 400);
+        if (Long.bitCount(board.getPieces(color, PieceEnum.BISHOP)) > 1) {
+            midgame += sign * BISHOP_PAIR_MIDGAME;
+            endgame += sign * BISHOP_PAIR_ENDGAME;
+        }
+        int king = board.kingSquare(color);
+        if (king >= 0) {
+            long pawns = board.getPieces(color, PieceEnum.PAWN);
+            midgame += sign * (SHIELD_NEAR * Long.bitCount(pawns & SHIELD_NEAR_SQUARES[color.ordinal()][king])
+                    + SHIELD_FAR * Long.bitCount(pawns & SHIELD_FAR_SQUARES[color.ordinal()][king]));
+        }
+    }
+
+    private static long attacks(PieceEnum name, int square, long occupied) {
+        switch (name) {
+            case KNIGHT -> {
+                return AttackTables.knightAttacks(square);
+            }
+            case BISHOP -> {
+                return AttackTables.bishopAttacks(square, occupied);
+            }
+            case ROOK -> {
+                return AttackTables.rookAttacks(square, occupied);
+            }
+            default -> {
+                return AttackTables.queenAttacks(square, occupied);
+            }
+        }
+    }
+
+    /*
+     * casillas atacadas por todos los peones de la mascara, las blancas avanzan hacia la casilla 0
+     */
+    private static long pawnAttacks(ColorEnum color, long pawns) {
+        if (color.equals(ColorEnum.WHITE))
+            return ((pawns & ~FILE_A) >>> 9) | ((pawns & ~FILE_H) >>> 7);
+        return ((pawns & ~FILE_A) << 7) | ((pawns & ~FILE_H) << 9);
+    }
+
+    // GETTERS & SETTERS
+
+    public PawnHashTable getPawnTable() {
+        return pawnTable;
+    }
+}
@@ -0,0 +1,94 @@
+package srs.aistrategy;
+
+import java.util.Arrays;
+
+/*
+ * tabla de tamano fijo con la evaluacion de la estructura de peones, indexada por "BitboardBoard.getPawnKey",
+ * como los peones cambian poco durante una busqueda casi todas las posiciones reutilizan una entrada ya calculada
+ *
+ * cada entrada guarda la clave completa y el valor empaquetado con "pack", una colision reemplaza la entrada,
+ * la tabla no es segura entre hilos, cada "Evaluator" tiene la suya
+ */
+public class PawnHashTable {
+
+    public static final int MISS = Integer.MIN_VALUE; // lo que retorna "probe" si la clave no esta en la tabla
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private long probes;
+    private long hits;
+
+    /*
+     * la cantidad de entradas se redondea a la potencia de 2 inferior, cada entrada ocupa 12 bytes
+     */
+    public PawnHashTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(entries, 1));
+        keys = new long[size];
+        values = new int[size];
+        mask = size - 1;
+        clear();
+    }
+
+    /*
+     * vacia la tabla y los contadores, la clave 0 corresponde a no tener peones, que vale 0, por lo que
+     * las entradas vacias ya son validas
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(values, 0);
+        probes = 0L;
+        hits = 0L;
+    }
+
+    public int probe(long key) {
+        int index = (int) key & mask;
+        probes++;
+        if (keys[index] != key)
+            return MISS;
+        hits++;
+        return values[index];
+    }
+
+    public void store(long key, int value) {
+        int index = (int) key & mask;
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    /*
+     * empaqueta el valor del medio juego en los 16 bits altos y el del final en los bajos, con signo
+     */
+    public static int pack(int midgame, int endgame) {
+        return (midgame << 16) + endgame;
+    }
+
+    public static int midgame(int value) {
+        return (value - (short) value) >> 16;
+    }
+
+    public static int endgame(int value) {
+        return (short) value;
+    }
+
+    // GETTERS & SETTERS
+
+    public int getSize() {
+        return keys.length;
+    }
+
+    public long getProbes() {
+        return probes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    /*
+     * porcentaje de consultas que encontraron la entrada, en partes por mil
+     */
+    public int getHitRate() {
+        return probes == 0 ? 0 : (int) (hits * 1000 / probes);
+    }
+}
@@ -0,0 +1,59 @@
+package srs.aistrategy;
+
+/*
+ * limites de una busqueda, un valor de 0 indica que ese limite no se aplica,
+ * la busqueda termina al alcanzar el primero de los limites que se hayan indicado,
+ * ademas indica cuantos hilos se usan en la busqueda
+ */
+public class SearchLimits {
+
+    private int depth;
+    private long nodes;
+    private long millis;
+    private int threads;
+
+    public SearchLimits(int depth, long nodes, long millis) {
+        this(depth, nodes, millis, 1);
+    }
+
+    public SearchLimits(int depth, long nodes, long millis, int threads) {
+        this.depth = depth;
+        this.nodes = nodes;
+        this.millis = millis;
+        this.threads = Math.max(threads, 1);
+    }
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0L, 0L);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(0, nodes, 0L);
+    }
+
+    public static SearchLimits time(long millis) {
+        return new SearchLimits(0, 0L, millis);
+    }
+
+    // GETTERS & SETTERS
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = Math.max(threads, 1);
+    }
+}
@@ -1,5 +1,68 @@
 package srs.aistrategy;
 
+import srs.util.Move;
+import srs.util.MoveGenerator;
+
+/*
+ * estrategia rapida: alfa-beta a profundidad fija con quiescencia sobre las capturas, sin tabla de transposicion
+ */
 public class Strategy0 extends AIStrategy {
-    
+
+    public Strategy0() {
+        super();
+    }
+
+    protected int search() {
+        int depth = maxDepth();
+        if (limits.getDepth() <= 0)
+            depth = Math.min(depth, 4);
+        int[] buffer = moves[0];
+        int count = MoveGenerator.generateMoves(board, buffer);
+        if (count == 0)
+            return Move.NONE;
+        scoreMoves(0, count, Move.NONE);
+        int bestMove = Move.NONE;
+        int alpha = -INFINITE;
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(0, i, count);
+            board.makeMove(move);
+            int score = -alphaBeta(depth - 1, -INFINITE, -alpha, 1);
+            board.unmakeMove(move);
+            if (isStopped() && bestMove != Move.NONE)
+                break;
+            if (score > alpha || bestMove == Move.NONE) {
+                alpha = score;
+                bestMove = move;
+            }
+        }
+        bestScore = alpha;
+        depthReached = depth;
+        return bestMove;
+    }
+
+    private int alphaBeta(int depth, int alpha, int beta, int ply) {
+        if (depth <= 0 || ply >= MAX_PLY)
+            return quiescence(alpha, beta, ply);
+        nodes++;
+        if (shouldStop())
+            return 0;
+        int[] buffer = moves[ply];
+        int count = MoveGenerator.generateMoves(board, buffer);
+        if (count == 0)
+            return inCheck() ? -MATE + ply : 0;
+        scoreMoves(ply, count, Move.NONE);
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(ply, i, count);
+            board.makeMove(move);
+            int score = -alphaBeta(depth - 1, -beta, -alpha, ply + 1);
+            board.unmakeMove(move);
+            if (isStopped())
+                return 0;
+            if (score >= beta)
+                return score;
+            if (score > alpha)
+                alpha = score;
+        }
+        return alpha;
+    }
 }
@@ -1,5 +1,304 @@
 package srs.aistrategy;
 
+import srs.tablebase.Tablebase;
+import srs.util.BitboardBoard;
+import srs.util.Move;
+import srs.util.MoveGenerator;
+
+/*
+ * estrategia fuerte: profundizacion iterativa con busqueda de variante principal (pvs), tabla de transposicion,
+ * y ordenamiento de movimientos por movimiento de la tabla, mvv-lva, movimientos asesinos e historial, y si hay tablas
+ * de finales, las posiciones con pocas piezas toman su valor exacto de ellas
+ *
+ * si los limites indican mas de un hilo, se usa lazy smp: cada hilo ayudante busca la misma posicion sobre su propia
+ * copia del tablero compartiendo la tabla de transposicion, y el resultado es el del hilo principal, que aprovecha
+ * las entradas que cargan los ayudantes
+ */
 public class Strategy1 extends AIStrategy {
-    
+
+    private TranspositionTable transpositionTable;
+    private int[][] killers; // 2 movimientos sin captura que provocaron un corte en cada ply
+    private int[][] history; // indexada por casilla de origen y de destino, suma la profundidad al cuadrado de cada corte
+    private int rootBestMove;
+    private Strategy1 parent; // hilo principal si esta instancia es un ayudante, null si es el hilo principal
+    private Strategy1[] helpers;
+    private int helpersUsed; // cantidad de ayudantes que participaron en la ultima busqueda
+    private int startDepth; // los ayudantes comienzan en distintas profundidades para no recorrer el arbol en el mismo orden
+    private volatile boolean finished;
+
+    public Strategy1() {
+        this(new TranspositionTable(16));
+    }
+
+    public Strategy1(TranspositionTable transpositionTable) {
+        super();
+        this.transpositionTable = transpositionTable;
+        killers = new int[MAX_PLY + 1][2];
+        history = new int[64][64];
+        parent = null;
+        helpers = new Strategy1[0];
+        helpersUsed = 0;
+        startDepth = 1;
+    }
+
+    protected int search() {
+        if (parent == null)
+            transpositionTable.newSearch();
+        for (int[] killer : killers) {
+            killer[0] = Move.NONE;
+            killer[1] = Move.NONE;
+        }
+        for (int[] row : history)
+            for (int i = 0; i < row.length; i++)
+                row[i] >>= 2;
+        if (MoveGenerator.generateMoves(board, moves[0]) == 0)
+            return Move.NONE;
+        int bestMove = moves[0][0]; // si se corta antes de terminar algun movimiento de la raiz, se juega un movimiento legal
+        Thread[] threads = startHelpers();
+        int maxDepth = maxDepth();
+        for (int depth = Math.min(startDepth, maxDepth); depth <= maxDepth; depth++) {
+            rootBestMove = Move.NONE;
+            int score = searchRoot(depth);
+            if (isStopped()) {
+                // la iteracion incompleta no es confiable y me quedo con la anterior, salvo que sea la primera
+                if (depthReached == 0 && rootBestMove != Move.NONE)
+                    bestMove = rootBestMove;
+                break;
+            }
+            bestMove = rootBestMove;
+            bestScore = score;
+            depthReached = depth;
+            if (parent == null)
+                onIteration(depth, score, bestMove);
+            if (isStopped() || Math.abs(score) >= MATE - MAX_PLY)
+                break;
+        }
+        stopHelpers(threads);
+        return bestMove;
+    }
+
+    /*
+     * lanza un hilo por cada ayudante que piden los limites, cada uno con su propia copia del tablero
+     */
+    private Thread[] startHelpers() {
+        int count = parent == null ? limits.getThreads() - 1 : 0;
+        helpersUsed = count;
+        if (count <= 0)
+            return new Thread[0];
+        if (helpers.length != count) {
+            helpers = new Strategy1[count];
+            for (int i = 0; i < count; i++) {
+                helpers[i] = new Strategy1(transpositionTable);
+                helpers[i].parent = this;
+                helpers[i].startDepth = 1 + ((i + 1) & 1);
+            }
+        }
+        finished = false;
+        Thread[] output = new Thread[count];
+        for (int i = 0; i < count; i++) {
+            Strategy1 helper = helpers[i];
+            BitboardBoard copy = board.copy();
+            helper.transpositionTable = transpositionTable;
+            helper.tablebase = tablebase;
+            output[i] = new Thread(() -> helper.bestMove(copy, limits), "lazy-smp-" + (i + 1));
+            output[i].setDaemon(true);
+            output[i].start();
+        }
+        return output;
+    }
+
+    /*
+     * avisa a los ayudantes que el hilo principal termino y espera a que se detengan
+     */
+    private void stopHelpers(Thread[] threads) {
+        finished = true;
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    protected boolean shouldStop() {
+        if (parent != null && parent.finished)
+            stop();
+        return super.shouldStop();
+    }
+
+    /*
+     * cantidad de nodos de la ultima busqueda, sumando los de todos los hilos
+     */
+    public long getNodes() {
+        long output = nodes;
+        for (int i = 0; i < helpersUsed && i < helpers.length; i++)
+            output += helpers[i].nodes;
+        return output;
+    }
+
+    /*
+     * cantidad de consultas a las tablas de finales que encontraron la posicion, sumando las de todos los hilos
+     */
+    public long getTablebaseHits() {
+        long output = tablebaseHits;
+        for (int i = 0; i < helpersUsed && i < helpers.length; i++)
+            output += helpers[i].tablebaseHits;
+        return output;
+    }
+
+    /*
+     * se llama al completar cada iteracion, permite que otras clases reporten el progreso de la busqueda
+     */
+    protected void onIteration(int depth, int score, int bestMove) {
+
+    }
+
+    private int searchRoot(int depth) {
+        int[] buffer = moves[0];
+        int count = MoveGenerator.generateMoves(board, buffer);
+        if (count == 0)
+            return inCheck() ? -MATE : 0;
+        long data = transpositionTable.probe(board.getKey());
+        scoreMoves(0, count, data != 0 ? TranspositionTable.move(data) : Move.NONE);
+        int alpha = -INFINITE;
+        int beta = INFINITE;
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(0, i, count);
+            board.makeMove(move);
+            int score;
+            if (i == 0)
+                score = -alphaBeta(depth - 1, -beta, -alpha, 1);
+            else {
+                score = -alphaBeta(depth - 1, -alpha - 1, -alpha, 1);
+                if (score > alpha && !isStopped())
+                    score = -alphaBeta(depth - 1, -beta, -alpha, 1);
+            }
+            board.unmakeMove(move);
+            if (isStopped())
+                break;
+            if (score > alpha) {
+                alpha = score;
+                rootBestMove = move;
+            }
+        }
+        if (!isStopped())
+            transpositionTable.store(board.getKey(), rootBestMove, alpha, depth, TranspositionTable.EXACT);
+        return alpha;
+    }
+
+    private int alphaBeta(int depth, int alpha, int beta, int ply) {
+        if (ply >= MAX_PLY)
+            return evaluate();
+        if (board.isRepetition())
+            return 0; // una repeticion, en el camino o con posiciones ya jugadas en la partida, se valora como tablas
+        long key = board.getKey();
+        if (tablebase != null) {
+            int value = tablebase.probe(board, tablebaseBuffer);
+            if (value != Tablebase.UNKNOWN) {
+                tablebaseHits++;
+                return tablebaseScore(value, ply);
+            }
+        }
+        boolean inCheck = inCheck();
+        if (inCheck)
+            depth++; // extension de jaque
+        if (depth <= 0)
+            return quiescence(alpha, beta, ply);
+        nodes++;
+        if (shouldStop())
+            return 0;
+        long data = transpositionTable.probe(key);
+        int hashMove = Move.NONE;
+        if (data != 0) {
+            hashMove = TranspositionTable.move(data);
+            if (TranspositionTable.depth(data) >= depth) {
+                int score = fromTable(TranspositionTable.score(data), ply);
+                int bound = TranspositionTable.bound(data);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha))
+                    return score;
+            }
+        }
+        int[] buffer = moves[ply];
+        int count = MoveGenerator.generateMoves(board, buffer);
+        if (count == 0)
+            return inCheck ? -MATE + ply : 0;
+        scoreMoves(ply, count, hashMove);
+        int alphaOld = alpha;
+        int bestMove = Move.NONE;
+        int bestScore = -INFINITE;
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(ply, i, count);
+            board.makeMove(move);
+            int score;
+            if (i == 0)
+                score = -alphaBeta(depth - 1, -beta, -alpha, ply + 1);
+            else {
+                score = -alphaBeta(depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && score < beta && !isStopped())
+                    score = -alphaBeta(depth - 1, -beta, -alpha, ply + 1);
+            }
+            board.unmakeMove(move);
+            if (isStopped())
+                return 0;
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+            if (score > alpha)
+                alpha = score;
+            if (alpha >= beta) {
+                if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+                    if (killers[ply][0] != move) {
+                        killers[ply][1] = killers[ply][0];
+                        killers[ply][0] = move;
+                    }
+                    history[Move.from(move)][Move.to(move)] += depth * depth;
+                }
+                transpositionTable.store(key, move, toTable(score, ply), depth, TranspositionTable.LOWER_BOUND);
+                return score;
+            }
+        }
+        transpositionTable.store(key, bestMove, toTable(bestScore, ply), depth, alpha > alphaOld ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND);
+        return bestScore;
+    }
+
+    protected int quietScore(int ply, int move) {
+        if (move == killers[ply][0])
+            return (1 << 19) + 1;
+        if (move == killers[ply][1])
+            return 1 << 19;
+        return Math.min(history[Move.from(move)][Move.to(move)], (1 << 19) - 1);
+    }
+
+    /*
+     * los valores de mate se guardan relativos a la posicion y no a la raiz, para que sean validos en cualquier camino
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY)
+            return score + ply;
+        if (score <= -MATE + MAX_PLY)
+            return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY)
+            return score - ply;
+        if (score <= -MATE + MAX_PLY)
+            return score + ply;
+        return score;
+    }
+
+    // GETTERS & SETTERS
+
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    public void setTranspositionTable(TranspositionTable transpositionTable) {
+        this.transpositionTable = transpositionTable;
+    }
 }
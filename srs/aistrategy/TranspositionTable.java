@@ -0,0 +1,141 @@
+package srs.aistrategy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/*
+ * tabla de transposicion de tamano fijo guardada en un unico arreglo de longs, compartida por todos los hilos de busqueda
+ * sin usar locks: cada entrada ocupa 2 longs, la clave xor los datos y los datos, por lo que si 2 hilos escriben la misma
+ * entrada a la vez y quedan mezcladas, la verificacion de la clave falla y la entrada simplemente se ignora
+ *
+ * cada bucket tiene 2 entradas: la primera se reemplaza solo por busquedas mas profundas o de una busqueda anterior,
+ * y la segunda se reemplaza siempre
+ */
+public class TranspositionTable {
+
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2; // el valor real es mayor o igual al guardado (corte beta)
+    public static final int UPPER_BOUND = 3; // el valor real es menor o igual al guardado (no supero alfa)
+
+    private static final int LONGS_PER_BUCKET = 4;
+    private static final int BYTES_PER_BUCKET = LONGS_PER_BUCKET * Long.BYTES;
+    private static final VarHandle TABLE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private long[] table;
+    private int mask; // cantidad de buckets - 1, la cantidad siempre es potencia de 2
+    private volatile int generation;
+
+    public TranspositionTable(int megabytes) {
+        resize(megabytes);
+    }
+
+    /*
+     * cambia el tamano de la tabla al mayor numero de buckets potencia de 2 que entra en los megabytes indicados,
+     * borrando su contenido, no debe llamarse mientras haya una busqueda en curso
+     */
+    public void resize(int megabytes) {
+        long buckets = Long.highestOneBit(Math.max(1L, (long) megabytes * 1024 * 1024 / BYTES_PER_BUCKET));
+        buckets = Math.min(buckets, Integer.highestOneBit(Integer.MAX_VALUE / LONGS_PER_BUCKET));
+        table = new long[(int) buckets * LONGS_PER_BUCKET];
+        mask = (int) buckets - 1;
+        generation = 0;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        generation = 0;
+    }
+
+    /*
+     * se llama al comenzar cada busqueda, para que las entradas de busquedas anteriores puedan ser reemplazadas
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0x3F;
+    }
+
+    /*
+     * retorna los datos guardados para la clave, o 0 si no hay una entrada valida, los datos se leen con
+     * "move", "score", "depth" y "bound"
+     */
+    public long probe(long key) {
+        int index = bucket(key);
+        for (int slot = index; slot < index + LONGS_PER_BUCKET; slot += 2) {
+            long data = (long) TABLE.getOpaque(table, slot + 1);
+            if (((long) TABLE.getOpaque(table, slot) ^ data) == key && data != 0)
+                return data;
+        }
+        return 0L;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = bucket(key);
+        long data = pack(move, score, depth, bound, generation);
+        long preferred = (long) TABLE.getOpaque(table, index + 1);
+        boolean sameKey = ((long) TABLE.getOpaque(table, index) ^ preferred) == key;
+        if (preferred == 0 || sameKey || depth >= depth(preferred) || generation(preferred) != generation) {
+            if (sameKey && move == 0) // conservo el mejor movimiento si la busqueda nueva no encontro uno
+                data = pack(move(preferred), score, depth, bound, generation);
+            write(index, key, data);
+        }
+        else
+            write(index + 2, key, data);
+    }
+
+    /*
+     * retorna el porcentaje de ocupacion de la tabla en partes por mil, contando entradas de la busqueda actual
+     * sobre una muestra de los primeros buckets
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, mask + 1);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = (long) TABLE.getOpaque(table, i * LONGS_PER_BUCKET + 1);
+            if (data != 0 && generation(data) == generation)
+                used++;
+        }
+        return used * 1000 / sample;
+    }
+
+    private void write(int slot, long key, long data) {
+        TABLE.setOpaque(table, slot, key ^ data);
+        TABLE.setOpaque(table, slot + 1, data);
+    }
+
+    private int bucket(long key) {
+        return ((int) key & mask) * LONGS_PER_BUCKET;
+    }
+
+    /*
+     * bits 0-23 movimiento, bits 24-39 valor, bits 40-47 profundidad, bits 48-49 tipo de cota, bits 50-55 generacion
+     */
+    private static long pack(int move, int score, int depth, int bound, int generation) {
+        return (move & 0xFFFFFFL) | ((score & 0xFFFFL) << 24) | ((long) (depth & 0xFF) << 40) | ((long) bound << 48) | ((long) generation << 50);
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 24);
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> 40) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> 48) & 0x3);
+    }
+
+    private static int generation(long data) {
+        return (int) ((data >>> 50) & 0x3F);
+    }
+
+    // GETTERS & SETTERS
+
+    public int getSizeInMegabytes() {
+        return (int) ((long) table.length * Long.BYTES / (1024 * 1024));
+    }
+}
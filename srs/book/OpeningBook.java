@@ -0,0 +1,146 @@
+package srs.book;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import srs.util.BitboardBoard;
+import srs.util.GameRecord;
+import srs.util.Move;
+
+/*
+ * libro de aperturas de solo lectura mapeado en memoria: las entradas estan ordenadas por clave zobrist y cada consulta
+ * es una busqueda binaria sobre el archivo mapeado, sin crear objetos, por lo que se puede consultar en cada movimiento
+ * y desde varios hilos a la vez
+ *
+ * formato: "SRSB", version (int), cantidad de entradas (long), y las entradas de "ENTRY_BYTES" bytes: la clave (long),
+ * el movimiento en los 16 bits de "GameRecord.toShort" (short) y su peso (int), ordenadas por clave y por peso descendente
+ */
+public class OpeningBook {
+
+    public static final int NONE = -1; // la posicion no esta en el libro
+    public static final int HEADER_BYTES = 16;
+    public static final int ENTRY_BYTES = 14;
+    static final byte[] MAGIC = {'S', 'R', 'S', 'B'};
+    static final int VERSION = 1;
+
+    private MappedByteBuffer data;
+    private int entries;
+
+    private OpeningBook(MappedByteBuffer data, int entries) {
+        this.data = data;
+        this.entries = entries;
+    }
+
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.limit() < HEADER_BYTES)
+                throw new IOException("el archivo no es un libro de aperturas: " + path);
+            for (int i = 0; i < MAGIC.length; i++)
+                if (data.get(i) != MAGIC[i])
+                    throw new IOException("el archivo no es un libro de aperturas: " + path);
+            if (data.getInt(4) != VERSION)
+                throw new IOException("version de libro de aperturas no soportada: " + path);
+            long entries = data.getLong(8);
+            if (entries < 0 || HEADER_BYTES + entries * ENTRY_BYTES != data.limit())
+                throw new IOException("libro de aperturas corrupto: " + path);
+            return new OpeningBook(data, (int) entries);
+        }
+    }
+
+    /*
+     * primera entrada con la clave, o la posicion donde iria si no hay ninguna
+     */
+    private int first(long key) {
+        int low = 0;
+        int high = entries;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (key(middle) < key)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /*
+     * suma de los pesos de los movimientos de la posicion, 0 si no esta en el libro
+     */
+    public int getWeight(long key) {
+        int output = 0;
+        for (int i = first(key); i < entries && key(i) == key; i++)
+            output += weight(i);
+        return output;
+    }
+
+    /*
+     * elige un movimiento de la posicion con probabilidad proporcional a su peso y lo retorna en 16 bits,
+     * o "NONE" si la posicion no esta en el libro
+     */
+    public int choose(long key, Random random) {
+        int start = first(key);
+        int total = 0;
+        for (int i = start; i < entries && key(i) == key; i++)
+            total += weight(i);
+        if (total <= 0)
+            return NONE;
+        int target = random.nextInt(total);
+        for (int i = start; ; i++) {
+            target -= weight(i);
+            if (target < 0)
+                return move(i);
+        }
+    }
+
+    /*
+     * igual que "choose" para la posicion del tablero, retornando el movimiento empaquetado de "Move" o "Move.NONE",
+     * el buffer se usa para generar los movimientos y descartar los que no son legales por una colision de claves
+     */
+    public int choose(BitboardBoard board, Random random, int[] buffer) {
+        int move = choose(board.getKey(), random);
+        return move == NONE ? Move.NONE : GameRecord.fromShort(board, move, buffer);
+    }
+
+    /*
+     * el movimiento de mayor peso de la posicion en 16 bits, o "NONE"
+     */
+    public int best(long key) {
+        int index = first(key);
+        return index < entries && key(index) == key ? move(index) : NONE;
+    }
+
+    /*
+     * carga los movimientos de la posicion y sus pesos, de mayor a menor peso, y retorna cuantos cargo
+     */
+    public int moves(long key, int[] moves, int[] weights) {
+        int count = 0;
+        for (int i = first(key); i < entries && key(i) == key && count < moves.length; i++) {
+            moves[count] = move(i);
+            weights[count++] = weight(i);
+        }
+        return count;
+    }
+
+    private long key(int index) {
+        return data.getLong(HEADER_BYTES + index * ENTRY_BYTES);
+    }
+
+    private int move(int index) {
+        return data.getShort(HEADER_BYTES + index * ENTRY_BYTES + 8) & 0xFFFF;
+    }
+
+    private int weight(int index) {
+        return data.getInt(HEADER_BYTES + index * ENTRY_BYTES + 10);
+    }
+
+    // GETTERS & SETTERS
+
+    public int getEntries() {
+        return entries;
+    }
+}
@@ -0,0 +1,176 @@
+package srs.book;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import srs.pgn.PgnGame;
+import srs.pgn.PgnImporter;
+import srs.util.BitboardBoard;
+import srs.util.Fen;
+import srs.util.GameRecord;
+
+/*
+ * compila una coleccion de partidas pgn en un libro de aperturas: por cada partida desde la posicion inicial se toman
+ * los primeros medios movimientos con la clave de la posicion en la que se jugaron, y el peso de cada movimiento
+ * es 2 por partida ganada por el jugador que lo hizo, 1 por tablas o resultado desconocido y 0 por derrota
+ *
+ * las entradas se juntan en arreglos, se ordenan por clave y movimiento, se suman las repetidas,
+ * y se descartan las que aparecen menos veces que el minimo o que solo perdieron
+ *
+ * uso: "OpeningBookBuilder <archivo pgn> <libro> [medios movimientos] [minimo] [hilos]"
+ */
+public class OpeningBookBuilder {
+
+    private int plies;
+    private ThreadLocal<BitboardBoard> boards;
+    private long[] keys;
+    private int[] moves;
+    private int[] weights;
+    private int size;
+
+    public OpeningBookBuilder(int plies) {
+        this.plies = plies;
+        boards = ThreadLocal.withInitial(BitboardBoard::new);
+        keys = new long[1 << 16];
+        moves = new int[keys.length];
+        weights = new int[keys.length];
+        size = 0;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("uso: OpeningBookBuilder <archivo pgn> <libro> [medios movimientos] [minimo] [hilos]");
+            return;
+        }
+        int plies = args.length >= 3 ? Integer.parseInt(args[2]) : 24;
+        int minimum = args.length >= 4 ? Integer.parseInt(args[3]) : 1;
+        int threads = args.length >= 5 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies);
+        PgnImporter importer = new PgnImporter(threads, builder::add);
+        importer.importFile(Paths.get(args[0]));
+        importer.close();
+        int entries = builder.write(Paths.get(args[1]), minimum);
+        System.out.printf("partidas: %d, entradas: %d, %d bytes%n", importer.getGames(), entries, Files.size(Paths.get(args[1])));
+    }
+
+    /*
+     * agrega los primeros movimientos de la partida, se puede llamar desde varios hilos
+     */
+    public void add(PgnGame game) {
+        GameRecord record = game.getRecord();
+        if (record.getStartFen() != null)
+            return;
+        int[] played = game.getMoves();
+        int count = Math.min(plies, played.length);
+        long[] gameKeys = new long[count];
+        int[] gameMoves = new int[count];
+        int[] gameWeights = new int[count];
+        BitboardBoard board = boards.get();
+        Fen.load(Fen.START_POSITION, board);
+        for (int i = 0; i < count; i++) {
+            gameKeys[i] = board.getKey();
+            gameMoves[i] = GameRecord.toShort(played[i]);
+            gameWeights[i] = weight(record.getResult(), (i & 1) == 0);
+            board.makeMove(played[i]);
+        }
+        synchronized (this) {
+            if (size + count > keys.length) {
+                int length = Math.max(keys.length * 2, size + count);
+                keys = Arrays.copyOf(keys, length);
+                moves = Arrays.copyOf(moves, length);
+                weights = Arrays.copyOf(weights, length);
+            }
+            System.arraycopy(gameKeys, 0, keys, size, count);
+            System.arraycopy(gameMoves, 0, moves, size, count);
+            System.arraycopy(gameWeights, 0, weights, size, count);
+            size += count;
+        }
+    }
+
+    private static int weight(int result, boolean white) {
+        switch (result) {
+            case GameRecord.WHITE_WINS -> {
+                return white ? 2 : 0;
+            }
+            case GameRecord.BLACK_WINS -> {
+                return white ? 0 : 2;
+            }
+            default -> {
+                return 1;
+            }
+        }
+    }
+
+    /*
+     * ordena y junta las entradas, y escribe las que aparecen al menos "minimum" veces con peso positivo,
+     * retorna la cantidad de entradas escritas
+     */
+    public synchronized int write(Path path, int minimum) throws IOException {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++)
+            order[i] = i;
+        Arrays.sort(order, (one, two) -> keys[one] != keys[two] ? Long.compare(keys[one], keys[two]) : Integer.compare(moves[one], moves[two]));
+        long[] outputKeys = new long[size];
+        int[] outputMoves = new int[size];
+        int[] outputWeights = new int[size];
+        int entries = 0;
+        for (int i = 0; i < size; ) {
+            int first = order[i];
+            int weight = 0;
+            int count = 0;
+            for (; i < size && keys[order[i]] == keys[first] && moves[order[i]] == moves[first]; i++) {
+                weight += weights[order[i]];
+                count++;
+            }
+            if (count >= minimum && weight > 0) {
+                outputKeys[entries] = keys[first];
+                outputMoves[entries] = moves[first];
+                outputWeights[entries++] = weight;
+            }
+        }
+        sortByWeight(outputKeys, outputMoves, outputWeights, entries);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            output.write(OpeningBook.MAGIC);
+            output.writeInt(OpeningBook.VERSION);
+            output.writeLong(entries);
+            for (int i = 0; i < entries; i++) {
+                output.writeLong(outputKeys[i]);
+                output.writeShort(outputMoves[i]);
+                output.writeInt(outputWeights[i]);
+            }
+        }
+        return entries;
+    }
+
+    /*
+     * deja los movimientos de cada posicion de mayor a menor peso, son pocos por posicion por lo que alcanza con insercion
+     */
+    private static void sortByWeight(long[] keys, int[] moves, int[] weights, int entries) {
+        for (int start = 0; start < entries; ) {
+            int end = start + 1;
+            while (end < entries && keys[end] == keys[start])
+                end++;
+            for (int i = start + 1; i < end; i++)
+                for (int j = i; j > start && weights[j - 1] < weights[j]; j--) {
+                    int move = moves[j];
+                    moves[j] = moves[j - 1];
+                    moves[j - 1] = move;
+                    int weight = weights[j];
+                    weights[j] = weights[j - 1];
+                    weights[j - 1] = weight;
+                }
+            start = end;
+        }
+    }
+
+    // GETTERS & SETTERS
+
+    public synchronized int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,132 @@
+package srs.perft;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import srs.Game;
+import srs.util.BitboardBoard;
+import srs.util.Fen;
+import srs.util.Move;
+import srs.util.MoveGenerator;
+
+public class Perft {
+
+    /*
+     * posiciones de prueba habituales con la cantidad de nodos publicada para cada profundidad, empezando por la profundidad 1
+     */
+    static final String[] POSITIONS = {
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+        "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"
+    };
+    static final long[][] EXPECTED = {
+        {20L, 400L, 8902L, 197281L, 4865609L, 119060324L},
+        {48L, 2039L, 97862L, 4085603L, 193690690L},
+        {14L, 191L, 2812L, 43238L, 674624L, 11030083L},
+        {6L, 264L, 9467L, 422333L, 15833292L},
+        {44L, 1486L, 62379L, 2103487L, 89941194L},
+        {46L, 2079L, 89890L, 3894594L, 164075551L}
+    };
+    private static final int MAX_DEPTH = 16;
+
+    private BitboardBoard board;
+    private int[][] moves; // un buffer de movimientos por profundidad, para no crear arreglos durante el recorrido
+
+    public Perft(BitboardBoard board) {
+        this.board = board;
+        moves = new int[MAX_DEPTH + 1][MoveGenerator.MAX_MOVES];
+    }
+
+    /*
+     * cuenta las hojas del arbol de movimientos legales hasta la profundidad indicada
+     */
+    public long perft(int depth) {
+        if (depth == 0)
+            return 1L;
+        int[] buffer = moves[depth];
+        int count = MoveGenerator.generateMoves(board, buffer);
+        if (depth == 1)
+            return count;
+        long output = 0L;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(buffer[i]);
+            output += perft(depth - 1);
+            board.unmakeMove(buffer[i]);
+        }
+        return output;
+    }
+
+    /*
+     * igual que "perft", pero muestra la cantidad de nodos que cuelgan de cada movimiento de la raiz,
+     * lo cual permite encontrar el movimiento con diferencias al compararlo con otro motor
+     */
+    public long divide(int depth, PrintStream out) {
+        int[] buffer = moves[depth];
+        int count = MoveGenerator.generateMoves(board, buffer);
+        long output = 0L;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(buffer[i]);
+            long nodes = perft(depth - 1);
+            board.unmakeMove(buffer[i]);
+            out.println(Move.toString(buffer[i]) + ": " + nodes);
+            output += nodes;
+        }
+        out.println("movimientos: " + count + ", nodos: " + output);
+        return output;
+    }
+
+    /*
+     * uso:
+     * "Perft" ----> recorre las posiciones de prueba hasta la profundidad 4 y compara con los valores publicados
+     * "Perft suite <profundidad>" ----> igual, pero hasta la profundidad indicada
+     * "Perft divide <profundidad> [fen]" ----> divide sobre la posicion de "Game.initializePieces" o sobre el fen indicado
+     */
+    public static void main(String[] args) {
+        if (args.length >= 2 && args[0].equals("divide")) {
+            BitboardBoard board;
+            if (args.length >= 3)
+                board = Fen.load(String.join(" ", Arrays.copyOfRange(args, 2, args.length)));
+            else
+                board = initialBoard();
+            new Perft(board).divide(Integer.parseInt(args[1]), System.out);
+            return;
+        }
+        int maxDepth = 4;
+        if (args.length >= 2 && args[0].equals("suite"))
+            maxDepth = Integer.parseInt(args[1]);
+        boolean ok = run("Game.initializePieces", initialBoard(), EXPECTED[0], maxDepth, System.out);
+        for (int i = 0; i < POSITIONS.length; i++)
+            ok &= run(POSITIONS[i], Fen.load(POSITIONS[i]), EXPECTED[i], maxDepth, System.out);
+        System.out.println(ok ? "PERFT CORRECTO" : "PERFT CON ERRORES");
+        if (!ok)
+            System.exit(1);
+    }
+
+    /*
+     * ejecuta perft sobre el tablero para cada profundidad con valor publicado, mostrando nodos por segundo,
+     * y retorna un booleano indicando si todos los resultados coinciden
+     */
+    public static boolean run(String name, BitboardBoard board, long[] expected, int maxDepth, PrintStream out) {
+        boolean output = true;
+        Perft perft = new Perft(board);
+        out.println(name);
+        for (int depth = 1; depth <= expected.length && depth <= maxDepth; depth++) {
+            long start = System.nanoTime();
+            long nodes = perft.perft(depth);
+            long elapsed = Math.max(System.nanoTime() - start, 1L);
+            boolean match = nodes == expected[depth - 1];
+            out.printf("  perft(%d) = %d nodos, %d ms, %d nodos/s%s%n", depth, nodes, elapsed / 1000000, nodes * 1000000000L / elapsed, match ? "" : " ERROR: se esperaban " + expected[depth - 1]);
+            output &= match;
+        }
+        return output;
+    }
+
+    static BitboardBoard initialBoard() {
+        Game.getInstance();
+        Game.initializePieces();
+        return Game.getBoard();
+    }
+}
@@ -0,0 +1,61 @@
+package srs.pgn;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import srs.util.GameRecord;
+import srs.util.Movement;
+
+/*
+ * partida leida de un archivo pgn: sus etiquetas, los movimientos empaquetados de "Move" y los movimientos
+ * en el formato de "GameSession.getMovements()", si una jugada no se pudo interpretar la partida queda incompleta
+ * y los movimientos llegan hasta la jugada anterior, "record" tiene la misma partida en el formato compacto de "GameArchive"
+ */
+public class PgnGame {
+
+    private HashMap<String, String> tags;
+    private int[] moves;
+    private ArrayList<Movement> movements;
+    private GameRecord record;
+    private String result;
+    private boolean complete;
+
+    public PgnGame(HashMap<String, String> tags, int[] moves, ArrayList<Movement> movements, GameRecord record, String result, boolean complete) {
+        this.tags = tags;
+        this.moves = moves;
+        this.movements = movements;
+        this.record = record;
+        this.result = result;
+        this.complete = complete;
+    }
+
+    // GETTERS & SETTERS
+
+    public HashMap<String, String> getTags() {
+        return tags;
+    }
+
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public int[] getMoves() {
+        return moves;
+    }
+
+    public ArrayList<Movement> getMovements() {
+        return movements;
+    }
+
+    public GameRecord getRecord() {
+        return record;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+}
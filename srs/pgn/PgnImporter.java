@@ -0,0 +1,218 @@
+package srs.pgn;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import srs.util.GameArchive;
+
+/*
+ * importa archivos pgn de cualquier tamano: el archivo se mapea a memoria por ventanas, un unico hilo recorre
+ * cada ventana buscando donde empieza cada partida, y las partidas se reparten en lotes que un pool fork-join
+ * interpreta y reproduce en paralelo, cada hilo con su propio "PgnParser"
+ *
+ * una partida empieza en una linea que comienza con "[" despues de una linea de jugadas, la partida que queda
+ * cortada al final de una ventana se vuelve a leer completa al comienzo de la siguiente
+ *
+ * uso: "PgnImporter <archivo> [hilos] [archivo de salida]", si se indica un archivo de salida las partidas se guardan
+ * en el formato compacto de "GameArchive"
+ */
+public class PgnImporter {
+
+    private static final long WINDOW = 1L << 30; // bytes de cada ventana mapeada, un "MappedByteBuffer" no puede superar 2 gb
+    private static final int BATCH = 256; // partidas por tarea enviada al pool
+    private static final int THRESHOLD = 16; // partidas a partir de las cuales una tarea se divide en 2
+
+    private ForkJoinPool pool;
+    private Consumer<PgnGame> consumer;
+    private ThreadLocal<PgnParser> parsers;
+    private LongAdder games;
+    private LongAdder positions;
+    private LongAdder incomplete;
+    private long elapsed;
+
+    /*
+     * el consumidor recibe cada partida desde los hilos del pool, por lo que debe poder llamarse en paralelo,
+     * si es null las partidas solo se cuentan
+     */
+    public PgnImporter(int threads, Consumer<PgnGame> consumer) {
+        pool = new ForkJoinPool(Math.max(threads, 1));
+        this.consumer = consumer;
+        parsers = ThreadLocal.withInitial(PgnParser::new);
+        games = new LongAdder();
+        positions = new LongAdder();
+        incomplete = new LongAdder();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("uso: PgnImporter <archivo> [hilos] [archivo de salida]");
+            return;
+        }
+        int threads = args.length >= 2 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        GameArchive.Writer writer = args.length >= 3 ? GameArchive.newWriter(Paths.get(args[2])) : null;
+        PgnImporter importer = new PgnImporter(threads, writer == null ? null : game -> {
+            synchronized (writer) {
+                try {
+                    writer.write(game.getRecord());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+        importer.importFile(Paths.get(args[0]));
+        importer.close();
+        if (writer != null) {
+            writer.close();
+            long bytes = Files.size(Paths.get(args[2]));
+            System.out.printf("archivo de partidas: %d bytes, %.2f bytes por posicion%n", bytes, (double) bytes / Math.max(importer.getPositions(), 1L));
+        }
+        long millis = Math.max(importer.getElapsedMillis(), 1L);
+        System.out.printf("partidas: %d (%d incompletas), posiciones: %d, %d ms, %d partidas/s, %d posiciones/s%n",
+                importer.getGames(), importer.getIncomplete(), importer.getPositions(), millis,
+                importer.getGames() * 1000L / millis, importer.getPositions() * 1000L / millis);
+    }
+
+    public void importFile(Path path) throws IOException {
+        long start = System.nanoTime();
+        ArrayList<ForkJoinTask<?>> tasks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long base = 0L;
+            while (base < size) {
+                long length = Math.min(WINDOW, size - base);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, base, length);
+                boolean last = base + length == size;
+                int consumed = split(window, (int) length, last, tasks);
+                if (consumed == 0 && !last)
+                    throw new IOException("una partida supera el tamano de la ventana de lectura: " + path);
+                base += last ? length : consumed;
+            }
+            for (ForkJoinTask<?> task : tasks)
+                task.join();
+        }
+        elapsed += System.nanoTime() - start;
+    }
+
+    /*
+     * busca los limites de las partidas de la ventana y envia los lotes al pool, retorna la cantidad de bytes
+     * consumidos, que excluye la ultima partida si la ventana no llega al final del archivo
+     */
+    private int split(ByteBuffer window, int length, boolean last, ArrayList<ForkJoinTask<?>> tasks) {
+        int[] starts = new int[BATCH];
+        int[] ends = new int[BATCH];
+        int count = 0;
+        int gameStart = -1;
+        boolean movetext = false;
+        int index = 0;
+        while (index < length) {
+            byte c = window.get(index);
+            if (c == '[') {
+                if (gameStart < 0)
+                    gameStart = index;
+                else if (movetext) {
+                    starts[count] = gameStart;
+                    ends[count++] = index;
+                    if (count == BATCH) {
+                        tasks.add(pool.submit(new Batch(window.duplicate(), starts, ends, 0, count)));
+                        starts = new int[BATCH];
+                        ends = new int[BATCH];
+                        count = 0;
+                    }
+                    gameStart = index;
+                }
+                movetext = false;
+            }
+            else if (c > ' ') {
+                if (gameStart < 0)
+                    gameStart = index;
+                movetext = true;
+            }
+            while (index < length && window.get(index) != '\n') // paso a la linea siguiente
+                index++;
+            index++;
+        }
+        if (last && gameStart >= 0) {
+            starts[count] = gameStart;
+            ends[count++] = length;
+        }
+        if (count > 0)
+            tasks.add(pool.submit(new Batch(window.duplicate(), Arrays.copyOf(starts, count), Arrays.copyOf(ends, count), 0, count)));
+        return last || gameStart < 0 ? length : gameStart;
+    }
+
+    public void close() {
+        pool.shutdown();
+    }
+
+    /*
+     * interpreta las partidas entre "from" y "to" de un lote, dividiendose mientras sean muchas
+     */
+    private class Batch extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private ByteBuffer window;
+        private int[] starts;
+        private int[] ends;
+        private int from;
+        private int to;
+
+        private Batch(ByteBuffer window, int[] starts, int[] ends, int from, int to) {
+            this.window = window;
+            this.starts = starts;
+            this.ends = ends;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Batch(window.duplicate(), starts, ends, from, middle), new Batch(window, starts, ends, middle, to));
+                return;
+            }
+            PgnParser parser = parsers.get();
+            for (int i = from; i < to; i++) {
+                PgnGame game = parser.parse(window, starts[i], ends[i]);
+                games.increment();
+                positions.add(game.getMoves().length);
+                if (!game.isComplete())
+                    incomplete.increment();
+                if (consumer != null)
+                    consumer.accept(game);
+            }
+        }
+    }
+
+    // GETTERS & SETTERS
+
+    public long getGames() {
+        return games.sum();
+    }
+
+    public long getPositions() {
+        return positions.sum();
+    }
+
+    public long getIncomplete() {
+        return incomplete.sum();
+    }
+
+    public long getElapsedMillis() {
+        return elapsed / 1000000L;
+    }
+}
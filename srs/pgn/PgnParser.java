@@ -0,0 +1,168 @@
+package srs.pgn;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import srs.GameSession;
+import srs.util.BitboardBoard;
+import srs.util.Fen;
+import srs.util.GameRecord;
+import srs.util.Move;
+import srs.util.MoveGenerator;
+import srs.util.San;
+
+/*
+ * interpreta una partida pgn que ocupa un rango de bytes y la reproduce sobre una "GameSession", los comentarios,
+ * variantes, anotaciones numericas y numeros de jugada se saltean, cada instancia reutiliza su tablero y sus buffers,
+ * por lo que debe usarse desde un unico hilo
+ */
+public class PgnParser {
+
+    private BitboardBoard board;
+    private int[] buffer; // movimientos legales de la posicion, para resolver cada jugada
+    private int[] moves; // movimientos de la partida en curso, crece si hace falta
+    private StringBuilder token;
+
+    public PgnParser() {
+        board = new BitboardBoard();
+        buffer = new int[MoveGenerator.MAX_MOVES];
+        moves = new int[256];
+        token = new StringBuilder(32);
+    }
+
+    public PgnGame parse(ByteBuffer data, int start, int end) {
+        HashMap<String, String> tags = new HashMap<>();
+        int index = skipSpaces(data, start, end);
+        while (index < end && data.get(index) == '[') {
+            index = parseTag(data, index, end, tags);
+            index = skipSpaces(data, index, end);
+        }
+        String fen = tags.get("FEN");
+        try {
+            Fen.load(fen != null ? fen : Fen.START_POSITION, board);
+        } catch (IllegalArgumentException e) {
+            return new PgnGame(tags, new int[0], new ArrayList<>(), new GameRecord(), "*", false);
+        }
+        GameSession session = new GameSession(board);
+        int count = 0;
+        int variations = 0; // profundidad de variantes abiertas, sus jugadas no se reproducen
+        boolean complete = true;
+        String result = "*";
+        while (index < end) {
+            char c = (char) (data.get(index) & 0xFF);
+            switch (c) {
+                case ' ', '\t', '\r', '\n' -> index++;
+                case '{' -> index = skipTo(data, index, end, '}') + 1;
+                case ';' -> index = skipTo(data, index, end, '\n') + 1;
+                case '(' -> {
+                    variations++;
+                    index++;
+                }
+                case ')' -> {
+                    variations = Math.max(variations - 1, 0);
+                    index++;
+                }
+                default -> {
+                    index = readToken(data, index, end);
+                    if (variations > 0 || token.charAt(0) == '$')
+                        continue;
+                    if (isResult(token)) {
+                        result = token.toString();
+                        continue;
+                    }
+                    int sanStart = skipMoveNumber(token);
+                    if (sanStart == token.length() || !complete)
+                        continue;
+                    int move = San.parse(board, token, sanStart, token.length(), buffer);
+                    if (move == Move.NONE) {
+                        complete = false;
+                        continue;
+                    }
+                    if (count == moves.length)
+                        moves = Arrays.copyOf(moves, count * 2);
+                    moves[count++] = move;
+                    session.movePiece(move);
+                    session.changePlayer();
+                }
+            }
+        }
+        session.getRecord().setResult(GameRecord.result(result));
+        return new PgnGame(tags, Arrays.copyOf(moves, count), session.getMovements(), session.getRecord(), result, complete);
+    }
+
+    /*
+     * lee una etiqueta de la forma [Nombre "Valor"] y retorna la posicion siguiente al corchete de cierre
+     */
+    private static int parseTag(ByteBuffer data, int index, int end, HashMap<String, String> tags) {
+        int close = skipTo(data, index, end, ']');
+        int nameStart = index + 1;
+        int nameEnd = nameStart;
+        while (nameEnd < close && data.get(nameEnd) != ' ' && data.get(nameEnd) != '"')
+            nameEnd++;
+        int valueStart = skipTo(data, nameEnd, close, '"') + 1;
+        int valueEnd = valueStart;
+        while (valueEnd < close && !(data.get(valueEnd) == '"' && data.get(valueEnd - 1) != '\\'))
+            valueEnd++;
+        if (nameEnd > nameStart && valueStart <= close)
+            tags.put(string(data, nameStart, nameEnd), string(data, valueStart, Math.min(valueEnd, close)));
+        return Math.min(close + 1, end);
+    }
+
+    /*
+     * carga en "token" los caracteres hasta el siguiente espacio o delimitador y retorna la posicion siguiente
+     */
+    private int readToken(ByteBuffer data, int index, int end) {
+        token.setLength(0);
+        while (index < end) {
+            char c = (char) (data.get(index) & 0xFF);
+            if (c <= ' ' || c == '{' || c == '}' || c == '(' || c == ')' || c == ';')
+                break;
+            token.append(c);
+            index++;
+        }
+        if (token.length() == 0) { // un delimitador suelto, como una llave de cierre sin apertura
+            token.append((char) (data.get(index) & 0xFF));
+            index++;
+        }
+        return index;
+    }
+
+    /*
+     * retorna donde empieza la jugada dentro del token, salteando un numero de jugada como "12." o "12..."
+     */
+    private static int skipMoveNumber(CharSequence token) {
+        int index = 0;
+        while (index < token.length() && Character.isDigit(token.charAt(index)))
+            index++;
+        if (index == 0 || index == token.length() || token.charAt(index) != '.')
+            return index == token.length() ? index : 0;
+        while (index < token.length() && token.charAt(index) == '.')
+            index++;
+        return index;
+    }
+
+    private static boolean isResult(CharSequence token) {
+        return "1-0".contentEquals(token) || "0-1".contentEquals(token) || "1/2-1/2".contentEquals(token) || "*".contentEquals(token);
+    }
+
+    private static int skipSpaces(ByteBuffer data, int index, int end) {
+        while (index < end && data.get(index) <= ' ')
+            index++;
+        return index;
+    }
+
+    private static int skipTo(ByteBuffer data, int index, int end, char c) {
+        while (index < end && data.get(index) != c)
+            index++;
+        return index;
+    }
+
+    private static String string(ByteBuffer data, int start, int end) {
+        char[] output = new char[end - start];
+        for (int i = start; i < end; i++)
+            output[i - start] = (char) (data.get(i) & 0xFF);
+        return new String(output);
+    }
+}
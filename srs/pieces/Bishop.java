@@ -19,15 +19,15 @@ public class Bishop extends Piece {
         for (int i = 1; i < 7; i++) {
             if (y+i <= 7) {
                 if (x+i <= 7)
-                    output.add(new Position(x+i, y+i));
+                    output.add(Position.of(x+i, y+i));
                 if (x-i >= 0)
-                    output.add(new Position(x-i, y+i));
+                    output.add(Position.of(x-i, y+i));
             }
             if (y-i >= 0) {
                 if (x+i <= 7)
-                    output.add(new Position(x+i, y-i));
+                    output.add(Position.of(x+i, y-i));
                 if (x-i >= 0)
-                    output.add(new Position(x-i, y-i));
+                    output.add(Position.of(x-i, y-i));
             }
         }
         return output;
@@ -40,15 +40,15 @@ public class Bishop extends Piece {
         for (int i = 1; i < 7; i++) {
             if (y+i <= 7) {
                 if (x+i <= 7)
-                    output.add(new Position(x+i, y+i));
+                    output.add(Position.of(x+i, y+i));
                 if (x-i >= 0)
-                    output.add(new Position(x-i, y+i));
+                    output.add(Position.of(x-i, y+i));
             }
             if (y-i >= 0) {
                 if (x+i <= 7)
-                    output.add(new Position(x+i, y-i));
+                    output.add(Position.of(x+i, y-i));
                 if (x-i >= 0)
-                    output.add(new Position(x-i, y-i));
+                    output.add(Position.of(x-i, y-i));
             }
         }
         return output;
@@ -17,23 +17,23 @@ public class King extends Piece {
         int x = position.getX();
         int y = position.getY();
         if (y+1 <= 7) {
-            output.add(new Position(x, y+1));
+            output.add(Position.of(x, y+1));
             if (x+1 <= 7)
-                output.add(new Position(x+1, y+1));
+                output.add(Position.of(x+1, y+1));
             if (x-1 >= 0)
-                output.add(new Position(x-1, y+1));
+                output.add(Position.of(x-1, y+1));
         }
         if (y-1 >= 0) {
-            output.add(new Position(x, y-1));
+            output.add(Position.of(x, y-1));
             if (x+1 <= 7)
-                output.add(new Position(x+1, y-1));
+                output.add(Position.of(x+1, y-1));
             if (x-1 >= 0)
-                output.add(new Position(x-1, y-1));
+                output.add(Position.of(x-1, y-1));
         }
         if (x+1 <= 7)
-            output.add(new Position(x+1, y));
+            output.add(Position.of(x+1, y));
         if (x-1 >= 0)
-            output.add(new Position(x-1, y));
+            output.add(Position.of(x-1, y));
         return output;
     }
 
@@ -42,23 +42,23 @@ public class King extends Piece {
         int x = position.getX();
         int y = position.getY();
         if (y+1 <= 7) {
-            output.add(new Position(x, y+1));
+            output.add(Position.of(x, y+1));
             if (x+1 <= 7)
-                output.add(new Position(x+1, y+1));
+                output.add(Position.of(x+1, y+1));
             if (x-1 >= 0)
-                output.add(new Position(x-1, y+1));
+                output.add(Position.of(x-1, y+1));
         }
         if (y-1 >= 0) {
-            output.add(new Position(x, y-1));
+            output.add(Position.of(x, y-1));
             if (x+1 <= 7)
-                output.add(new Position(x+1, y-1));
+                output.add(Position.of(x+1, y-1));
             if (x-1 >= 0)
-                output.add(new Position(x-1, y-1));
+                output.add(Position.of(x-1, y-1));
         }
         if (x+1 <= 7)
-            output.add(new Position(x+1, y));
+            output.add(Position.of(x+1, y));
         if (x-1 >= 0)
-            output.add(new Position(x-1, y));
+            output.add(Position.of(x-1, y));
         return output;
     }
 }
@@ -18,27 +18,27 @@ public class Knight extends Piece {
         int y = position.getY();
         if (y+1 <= 7) {
             if (x+2 <= 7)
-                output.add(new Position(x+2, y+1));
+                output.add(Position.of(x+2, y+1));
             if (x-2 >= 0)
-                output.add(new Position(x-2, y+1));
+                output.add(Position.of(x-2, y+1));
         }
         if (y-1 >= 0) {
             if (x+2 <= 7)
-                output.add(new Position(x+2, y-1));
+                output.add(Position.of(x+2, y-1));
             if (x-2 >= 0)
-                output.add(new Position(x-2, y-1));
+                output.add(Position.of(x-2, y-1));
         }
         if (y+2 <= 7) {
             if (x+1 <= 7)
-                output.add(new Position(x+1, y+2));
+                output.add(Position.of(x+1, y+2));
             if (x-1 >= 0)
-                output.add(new Position(x-1, y+2));
+                output.add(Position.of(x-1, y+2));
         }
         if (y-2 >= 0) {
             if (x+1 <= 7)
-                output.add(new Position(x+1, y-2));
+                output.add(Position.of(x+1, y-2));
             if (x-1 >= 0)
-                output.add(new Position(x-1, y-2));
+                output.add(Position.of(x-1, y-2));
         }
         return output;
     }
@@ -49,27 +49,27 @@ public class Knight extends Piece {
         int y = position.getY();
         if (y+1 <= 7) {
             if (x+2 <= 7)
-                output.add(new Position(x+2, y+1));
+                output.add(Position.of(x+2, y+1));
             if (x-2 >= 0)
-                output.add(new Position(x-2, y+1));
+                output.add(Position.of(x-2, y+1));
         }
         if (y-1 >= 0) {
             if (x+2 <= 7)
-                output.add(new Position(x+2, y-1));
+                output.add(Position.of(x+2, y-1));
             if (x-2 >= 0)
-                output.add(new Position(x-2, y-1));
+                output.add(Position.of(x-2, y-1));
         }
         if (y+2 <= 7) {
             if (x+1 <= 7)
-                output.add(new Position(x+1, y+2));
+                output.add(Position.of(x+1, y+2));
             if (x-1 >= 0)
-                output.add(new Position(x-1, y+2));
+                output.add(Position.of(x-1, y+2));
         }
         if (y-2 >= 0) {
             if (x+1 <= 7)
-                output.add(new Position(x+1, y-2));
+                output.add(Position.of(x+1, y-2));
             if (x-1 >= 0)
-                output.add(new Position(x-1, y-2));
+                output.add(Position.of(x-1, y-2));
         }
         return output;
     }
@@ -17,13 +17,13 @@ public class Pawn extends Piece {
         int x = position.getX();
         int y = position.getY();
         if (y+1 <= 7 && color == ColorEnum.BLACK)
-            output.add(new Position(x, y+1));
+            output.add(Position.of(x, y+1));
         if (y-1 >= 0 && color == ColorEnum.WHITE)
-            output.add(new Position(x, y-1));
+            output.add(Position.of(x, y-1));
         if (y+2 <= 7 && color == ColorEnum.BLACK && !wasMoved)
-            output.add(new Position(x, y+2));
+            output.add(Position.of(x, y+2));
         if (y-2 >= 0 && color == ColorEnum.WHITE && !wasMoved)
-            output.add(new Position(x, y-2));
+            output.add(Position.of(x, y-2));
         return output;
     }
 
@@ -32,13 +32,13 @@ public class Pawn extends Piece {
         int x = position.getX();
         int y = position.getY();
         if (y+1 <= 7 && x+1 <= 7 && color == ColorEnum.BLACK)
-            output.add(new Position(x+1, y+1));
+            output.add(Position.of(x+1, y+1));
         if (y-1 >= 0 && x+1 <= 7 && color == ColorEnum.WHITE)
-            output.add(new Position(x+1, y-1));
+            output.add(Position.of(x+1, y-1));
         if (y+1 <= 7 && x-1 >= 0 && color == ColorEnum.BLACK)
-            output.add(new Position(x-1, y+1));
+            output.add(Position.of(x-1, y+1));
         if (y-1 >= 0 && x-1 >= 0 && color == ColorEnum.WHITE)
-            output.add(new Position(x-1, y-1));
+            output.add(Position.of(x-1, y-1));
         return output;
     }
 }
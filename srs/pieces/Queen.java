@@ -18,23 +18,23 @@ public class Queen extends Piece {
         int y = position.getY();
         for (int i = 1; i < 7; i++) {
             if (y+i <= 7) {
-                output.add(new Position(x, y+i));
+                output.add(Position.of(x, y+i));
                 if (x+i <= 7)
-                    output.add(new Position(x+i, y+i));
+                    output.add(Position.of(x+i, y+i));
                 if (x-i >= 0)
-                    output.add(new Position(x-i, y+i));
+                    output.add(Position.of(x-i, y+i));
             }
             if (y-i >= 0) {
-                output.add(new Position(x, y-i));
+                output.add(Position.of(x, y-i));
                 if (x+i <= 7)
-                    output.add(new Position(x+i, y-i));
+                    output.add(Position.of(x+i, y-i));
                 if (x-i >= 0)
-                    output.add(new Position(x-i, y-i));
+                    output.add(Position.of(x-i, y-i));
             }
             if (x+i <= 7)
-                output.add(new Position(x+i, y));
+                output.add(Position.of(x+i, y));
             if (x-i >= 0)
-                output.add(new Position(x-i, y));
+                output.add(Position.of(x-i, y));
         }
         return output;
     }
@@ -45,23 +45,23 @@ public class Queen extends Piece {
         int y = position.getY();
         for (int i = 1; i < 7; i++) {
             if (y+i <= 7) {
-                output.add(new Position(x, y+i));
+                output.add(Position.of(x, y+i));
                 if (x+i <= 7)
-                    output.add(new Position(x+i, y+i));
+                    output.add(Position.of(x+i, y+i));
                 if (x-i >= 0)
-                    output.add(new Position(x-i, y+i));
+                    output.add(Position.of(x-i, y+i));
             }
             if (y-i >= 0) {
-                output.add(new Position(x, y-i));
+                output.add(Position.of(x, y-i));
                 if (x+i <= 7)
-                    output.add(new Position(x+i, y-i));
+                    output.add(Position.of(x+i, y-i));
                 if (x-i >= 0)
-                    output.add(new Position(x-i, y-i));
+                    output.add(Position.of(x-i, y-i));
             }
             if (x+i <= 7)
-                output.add(new Position(x+i, y));
+                output.add(Position.of(x+i, y));
             if (x-i >= 0)
-                output.add(new Position(x-i, y));
+                output.add(Position.of(x-i, y));
         }
         return output;
     }
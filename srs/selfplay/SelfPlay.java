@@ -0,0 +1,347 @@
+package srs.selfplay;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import srs.GameSession;
+import srs.aistrategy.AIStrategy;
+import srs.aistrategy.SearchLimits;
+import srs.aistrategy.Strategy1;
+import srs.book.OpeningBook;
+import srs.util.BitboardBoard;
+import srs.util.Fen;
+import srs.util.GameRecord;
+import srs.util.Move;
+import srs.util.MoveGenerator;
+import srs.util.San;
+import srs.util.enums.ColorEnum;
+import srs.util.enums.PieceEnum;
+
+/*
+ * juega partidas entre 2 estrategias sin interfaz, repartidas en un pool de hilos, cada hilo con su propia instancia
+ * de cada estrategia: las partidas 2k y 2k+1 empiezan con la misma apertura de movimientos al azar con los colores
+ * invertidos, y cada partida terminada se escribe en pgn al archivo de resultados, si hay un libro de aperturas
+ * esos movimientos se eligen del libro segun su peso hasta salir de el
+ *
+ * las tablas por 50 movimientos, triple repeticion o material insuficiente se aplican sin que nadie las reclame,
+ * y una partida que llega a "MAX_PLIES" medios movimientos se da por tablas
+ *
+ * uso: "SelfPlay [partidas] [hilos] [limite] [archivo pgn] [estrategia 1] [estrategia 2] [jugadas al azar] [libro]",
+ * donde el limite por movimiento es "depth:<n>", "nodes:<n>" o "millis:<n>" y cada estrategia es un nombre de clase,
+ * por ejemplo "srs.aistrategy.Strategy0", los resultados se informan desde el punto de vista de la estrategia 1
+ */
+public class SelfPlay {
+
+    private static final int MAX_PLIES = 400;
+    private static final String DEFAULT_STRATEGY = "srs.aistrategy.Strategy1";
+
+    private String[] strategies; // nombres de clase, la primera es la que se evalua
+    private SearchLimits limits;
+    private int randomPlies;
+    private long seed;
+    private Writer output; // null si no se guardan las partidas
+    private OpeningBook book; // null si las aperturas son movimientos al azar
+    private ThreadLocal<AIStrategy[]> engines;
+    private AtomicInteger played;
+    private int progressEvery;
+    private LongAdder wins;
+    private LongAdder draws;
+    private LongAdder losses;
+    private LongAdder nodes;
+    private LongAdder searchNanos;
+    private LongAdder plies;
+    private long elapsed;
+
+    public SelfPlay(String first, String second, SearchLimits limits, int randomPlies, long seed, Writer output) {
+        strategies = new String[] {first, second};
+        this.limits = limits;
+        this.randomPlies = randomPlies;
+        this.seed = seed;
+        this.output = output;
+        engines = ThreadLocal.withInitial(() -> new AIStrategy[] {create(strategies[0]), create(strategies[1])});
+        played = new AtomicInteger();
+        progressEvery = 1;
+        wins = new LongAdder();
+        draws = new LongAdder();
+        losses = new LongAdder();
+        nodes = new LongAdder();
+        searchNanos = new LongAdder();
+        plies = new LongAdder();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length >= 1 ? Integer.parseInt(args[0]) : 100;
+        int threads = args.length >= 2 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        SearchLimits limits = parseLimits(args.length >= 3 ? args[2] : "nodes:20000");
+        String file = args.length >= 4 ? args[3] : "selfplay.pgn";
+        String first = args.length >= 5 ? args[4] : DEFAULT_STRATEGY;
+        String second = args.length >= 6 ? args[5] : DEFAULT_STRATEGY;
+        int randomPlies = args.length >= 7 ? Integer.parseInt(args[6]) : 8;
+        OpeningBook book = args.length >= 8 ? OpeningBook.open(Paths.get(args[7])) : null;
+        try (Writer writer = new BufferedWriter(Files.newBufferedWriter(Paths.get(file), StandardCharsets.US_ASCII))) {
+            SelfPlay selfPlay = new SelfPlay(first, second, limits, randomPlies, System.nanoTime(), writer);
+            selfPlay.setBook(book);
+            selfPlay.run(games, threads);
+            selfPlay.printSummary();
+        }
+    }
+
+    /*
+     * convierte "depth:<n>", "nodes:<n>" o "millis:<n>" en los limites de cada movimiento
+     */
+    public static SearchLimits parseLimits(String text) {
+        int colon = text.indexOf(':');
+        if (colon < 0)
+            throw new IllegalArgumentException("limite no valido: " + text);
+        int value = Integer.parseInt(text.substring(colon + 1));
+        switch (text.substring(0, colon)) {
+            case "depth" -> {
+                return SearchLimits.depth(value);
+            }
+            case "nodes" -> {
+                return SearchLimits.nodes(value);
+            }
+            case "millis" -> {
+                return SearchLimits.time(value);
+            }
+            default -> throw new IllegalArgumentException("limite no valido: " + text);
+        }
+    }
+
+    private static AIStrategy create(String name) {
+        try {
+            return (AIStrategy) Class.forName(name).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("estrategia no valida: " + name, e);
+        }
+    }
+
+    /*
+     * juega todas las partidas y retorna cuando terminan
+     */
+    public void run(int games, int threads) throws InterruptedException {
+        create(strategies[0]);
+        create(strategies[1]); // falla antes de lanzar los hilos si algun nombre no es valido
+        progressEvery = Math.max(games / 20, 1);
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(threads, 1));
+        for (int i = 0; i < games; i++) {
+            int index = i;
+            pool.execute(() -> playGame(index));
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        elapsed = System.nanoTime() - start;
+    }
+
+    /*
+     * juega la partida indicada y acumula su resultado, la estrategia 1 juega con blancas en las partidas pares
+     */
+    private void playGame(int index) {
+        AIStrategy[] pair = engines.get();
+        for (AIStrategy engine : pair)
+            if (engine instanceof Strategy1)
+                ((Strategy1) engine).getTranspositionTable().clear();
+        boolean firstIsWhite = (index & 1) == 0;
+        BitboardBoard board = Fen.load(Fen.START_POSITION);
+        GameSession session = new GameSession(board);
+        Random random = new Random(seed + index / 2);
+        HashMap<Long, Integer> seen = new HashMap<>();
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int[] bookBuffer = new int[MoveGenerator.MAX_MOVES];
+        boolean inBook = book != null;
+        StringBuilder text = new StringBuilder(2048);
+        int result;
+        String reason;
+        for (int ply = 0; ; ply++) {
+            int count = MoveGenerator.generateMoves(board, buffer);
+            ColorEnum player = board.getSideToMove();
+            if (count == 0) {
+                boolean check = board.getAttackMap().isAttacked(BitboardBoard.opponent(player), board.kingSquare(player));
+                result = !check ? GameRecord.DRAW : player.equals(ColorEnum.WHITE) ? GameRecord.BLACK_WINS : GameRecord.WHITE_WINS;
+                reason = check ? "jaque mate" : "rey ahogado";
+                break;
+            }
+            if (board.getHalfmoveClock() >= 100) {
+                result = GameRecord.DRAW;
+                reason = "regla de 50 movimientos";
+                break;
+            }
+            if (seen.merge(board.getKey(), 1, Integer::sum) >= 3) {
+                result = GameRecord.DRAW;
+                reason = "triple repeticion";
+                break;
+            }
+            if (isInsufficientMaterial(board)) {
+                result = GameRecord.DRAW;
+                reason = "material insuficiente";
+                break;
+            }
+            if (ply >= MAX_PLIES) {
+                result = GameRecord.DRAW;
+                reason = "partida demasiado larga";
+                break;
+            }
+            int move = Move.NONE;
+            if (ply < randomPlies && book == null)
+                move = buffer[random.nextInt(count)];
+            else if (ply < randomPlies && inBook) {
+                move = book.choose(board, random, bookBuffer);
+                inBook = move != Move.NONE;
+            }
+            if (move == Move.NONE) {
+                AIStrategy engine = pair[player.equals(ColorEnum.WHITE) == firstIsWhite ? 0 : 1];
+                long start = System.nanoTime();
+                move = engine.bestMove(board, limits);
+                searchNanos.add(System.nanoTime() - start);
+                nodes.add(engine.getNodes());
+                if (move == Move.NONE)
+                    move = buffer[0];
+            }
+            if (player.equals(ColorEnum.WHITE))
+                text.append(board.getFullmoveNumber()).append(". ");
+            else if (ply == 0)
+                text.append(board.getFullmoveNumber()).append("... ");
+            text.append(San.toString(board, move)).append(' ');
+            session.movePiece(move);
+            session.changePlayer();
+        }
+        session.getRecord().setResult(result);
+        record(index, firstIsWhite, result, reason, session.getRecord().size(), text);
+    }
+
+    /*
+     * solo quedan los reyes, o los reyes y una pieza menor
+     */
+    private static boolean isInsufficientMaterial(BitboardBoard board) {
+        long heavy = 0L;
+        long minor = 0L;
+        for (ColorEnum color : ColorEnum.values()) {
+            heavy |= board.getPieces(color, PieceEnum.PAWN) | board.getPieces(color, PieceEnum.ROOK) | board.getPieces(color, PieceEnum.QUEEN);
+            minor |= board.getPieces(color, PieceEnum.BISHOP) | board.getPieces(color, PieceEnum.KNIGHT);
+        }
+        return heavy == 0 && Long.bitCount(minor) <= 1;
+    }
+
+    private void record(int index, boolean firstIsWhite, int result, String reason, int length, StringBuilder moves) {
+        if (result == GameRecord.DRAW)
+            draws.increment();
+        else if ((result == GameRecord.WHITE_WINS) == firstIsWhite)
+            wins.increment();
+        else
+            losses.increment();
+        plies.add(length);
+        if (output != null) {
+            StringBuilder text = new StringBuilder(moves.length() + 256);
+            text.append("[Event \"selfplay\"]\n");
+            text.append("[Round \"").append(index + 1).append("\"]\n");
+            text.append("[White \"").append(name(firstIsWhite ? 0 : 1)).append("\"]\n");
+            text.append("[Black \"").append(name(firstIsWhite ? 1 : 0)).append("\"]\n");
+            text.append("[Result \"").append(GameRecord.resultName(result)).append("\"]\n");
+            text.append("[PlyCount \"").append(length).append("\"]\n\n");
+            text.append(moves).append('{').append(reason).append("} ").append(GameRecord.resultName(result)).append("\n\n");
+            synchronized (output) {
+                try {
+                    output.write(text.toString());
+                    output.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        int count = played.incrementAndGet();
+        if (count % progressEvery == 0)
+            System.out.printf("partidas: %d, +%d =%d -%d%n", count, wins.sum(), draws.sum(), losses.sum());
+    }
+
+    private String name(int engine) {
+        String output = strategies[engine].substring(strategies[engine].lastIndexOf('.') + 1);
+        return strategies[0].equals(strategies[1]) ? output + " " + (engine + 1) : output;
+    }
+
+    public void printSummary() {
+        long games = getGames();
+        double hours = Math.max(elapsed, 1L) / 3.6e12;
+        double seconds = Math.max(searchNanos.sum(), 1L) / 1e9;
+        System.out.printf("%s contra %s: +%d =%d -%d, puntaje %.1f%%, elo %+.0f +/- %.0f (95%%)%n",
+                name(0), name(1), wins.sum(), draws.sum(), losses.sum(), getScore() * 100, getElo() + 0.0, getEloError()); // + 0.0 evita imprimir "-0"
+        System.out.printf("partidas/hora: %.0f, nodos/s: %.0f, medios movimientos por partida: %.1f%n",
+                games / hours, nodes.sum() / seconds, (double) plies.sum() / Math.max(games, 1L));
+    }
+
+    /*
+     * convierte un puntaje entre 0 y 1 en diferencia de elo con el modelo logistico
+     */
+    private static double elo(double score) {
+        double clamped = Math.min(Math.max(score, 1e-6), 1 - 1e-6);
+        return -400 * Math.log10(1 / clamped - 1);
+    }
+
+    // GETTERS & SETTERS
+
+    public long getGames() {
+        return wins.sum() + draws.sum() + losses.sum();
+    }
+
+    public long getWins() {
+        return wins.sum();
+    }
+
+    public long getDraws() {
+        return draws.sum();
+    }
+
+    public long getLosses() {
+        return losses.sum();
+    }
+
+    /*
+     * puntaje medio de la estrategia 1, ganar vale 1 y empatar 0.5
+     */
+    public double getScore() {
+        return (wins.sum() + draws.sum() / 2.0) / Math.max(getGames(), 1L);
+    }
+
+    public double getElo() {
+        return elo(getScore());
+    }
+
+    /*
+     * mitad del intervalo de confianza del 95% de la diferencia de elo, a partir del desvio del puntaje de cada partida
+     */
+    public double getEloError() {
+        long games = Math.max(getGames(), 1L);
+        double score = getScore();
+        double variance = (wins.sum() * Math.pow(1 - score, 2) + draws.sum() * Math.pow(0.5 - score, 2) + losses.sum() * Math.pow(score, 2)) / games;
+        double deviation = Math.sqrt(variance / games);
+        return (elo(score + 1.96 * deviation) - elo(score - 1.96 * deviation)) / 2;
+    }
+
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    public long getElapsedMillis() {
+        return elapsed / 1000000L;
+    }
+
+    public OpeningBook getBook() {
+        return book;
+    }
+
+    public void setBook(OpeningBook book) {
+        this.book = book;
+    }
+}
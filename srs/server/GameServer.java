@@ -0,0 +1,156 @@
+package srs.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * servidor sin interfaz grafica: acepta conexiones tcp en la interfaz local y atiende cada una con un "SessionHandler"
+ * que tiene su propia "GameSession", por lo que las partidas no comparten estado
+ *
+ * cada conexion corre en un hilo virtual si la jvm los tiene, y si no en un hilo de plataforma con una pila chica,
+ * la cantidad de sesiones esta acotada por "maxSessions" para que la memoria usada tambien lo este
+ *
+ * uso: "GameServer [puerto] [sesiones maximas] [segundos de inactividad]"
+ */
+public class GameServer {
+
+    public static final int DEFAULT_PORT = 5555;
+    public static final int DEFAULT_MAX_SESSIONS = 10000;
+    public static final int DEFAULT_IDLE_SECONDS = 600;
+
+    private static final long PLATFORM_STACK_SIZE = 256L * 1024; // la busqueda no corre en el servidor, no hace falta mas pila
+
+    private int port;
+    private int maxSessions;
+    private int idleSeconds;
+    private AtomicInteger sessions;
+    private AtomicLong movesPlayed;
+    private ServerSocket serverSocket;
+    private ExecutorService executor;
+    private boolean virtualThreads;
+
+    public GameServer(int port, int maxSessions, int idleSeconds) {
+        this.port = port;
+        this.maxSessions = maxSessions;
+        this.idleSeconds = idleSeconds;
+        sessions = new AtomicInteger();
+        movesPlayed = new AtomicLong();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int maxSessions = args.length >= 2 ? Integer.parseInt(args[1]) : DEFAULT_MAX_SESSIONS;
+        int idleSeconds = args.length >= 3 ? Integer.parseInt(args[2]) : DEFAULT_IDLE_SECONDS;
+        GameServer server = new GameServer(port, maxSessions, idleSeconds);
+        server.start();
+        System.out.println("servidor escuchando en " + server.getPort() + " (" + (server.isVirtualThreads() ? "hilos virtuales" : "hilos de plataforma") + ")");
+        server.serve();
+    }
+
+    /*
+     * abre el socket, si el puerto es 0 se elige uno libre que luego retorna "getPort"
+     */
+    public void start() throws IOException {
+        serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        port = serverSocket.getLocalPort();
+        executor = newPerTaskExecutor("session");
+        virtualThreads = !(executor instanceof ThreadPoolExecutor);
+    }
+
+    /*
+     * acepta conexiones hasta que se cierre el servidor, rechazando las que superan la cantidad maxima de sesiones
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (serverSocket.isClosed())
+                    return;
+                throw e;
+            }
+            if (sessions.incrementAndGet() > maxSessions) {
+                sessions.decrementAndGet();
+                reject(socket);
+                continue;
+            }
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(idleSeconds * 1000);
+            executor.execute(new SessionHandler(this, socket));
+        }
+    }
+
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    private static void reject(Socket socket) {
+        try (Socket connection = socket) {
+            OutputStream out = connection.getOutputStream();
+            out.write("error server full\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        } catch (IOException e) {
+            // VOID
+        }
+    }
+
+    /*
+     * un hilo virtual por tarea si la jvm los tiene (java 21 o superior), y si no un pool de hilos de plataforma
+     * que crea un hilo por tarea y lo reutiliza al terminar, se busca por reflexion para compilar tambien con java 17
+     */
+    static ExecutorService newPerTaskExecutor(String name) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(null, task, name + "-" + counter.incrementAndGet(), PLATFORM_STACK_SIZE);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    void onSessionClosed() {
+        sessions.decrementAndGet();
+    }
+
+    void onMovePlayed() {
+        movesPlayed.incrementAndGet();
+    }
+
+    String stats() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        return "stats sessions " + sessions.get() + " moves " + movesPlayed.get() + " heap " + used + "mb";
+    }
+
+    // GETTERS & SETTERS
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getSessions() {
+        return sessions.get();
+    }
+
+    public long getMovesPlayed() {
+        return movesPlayed.get();
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+}
@@ -0,0 +1,158 @@
+package srs.server;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * generador de carga para "GameServer": abre conexiones inactivas que solo quedan abiertas, y conexiones activas
+ * que juegan partidas de movimientos legales al azar lo mas rapido posible, reportando movimientos por segundo,
+ * la latencia de cada movimiento y la memoria que informa el servidor
+ *
+ * uso: "LoadGenerator [host] [puerto] [inactivas] [activas] [segundos]"
+ */
+public class LoadGenerator {
+
+    private static final int MAX_PLIES = 200; // pasado este largo la partida se abandona y se empieza otra
+    private static final int BUCKETS = 40; // histograma de latencias en potencias de 2 de microsegundos
+
+    private String host;
+    private int port;
+    private AtomicLong moves;
+    private AtomicLong errors;
+    private AtomicLongArray latencies;
+
+    public LoadGenerator(String host, int port) {
+        this.host = host;
+        this.port = port;
+        moves = new AtomicLong();
+        errors = new AtomicLong();
+        latencies = new AtomicLongArray(BUCKETS);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length >= 1 ? args[0] : "127.0.0.1";
+        int port = args.length >= 2 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+        int idle = args.length >= 3 ? Integer.parseInt(args[2]) : 10000;
+        int active = args.length >= 4 ? Integer.parseInt(args[3]) : 1000;
+        int seconds = args.length >= 5 ? Integer.parseInt(args[4]) : 30;
+        new LoadGenerator(host, port).run(idle, active, seconds);
+    }
+
+    public void run(int idle, int active, int seconds) throws Exception {
+        ArrayList<Socket> idleSockets = new ArrayList<>(idle);
+        for (int i = 0; i < idle; i++)
+            idleSockets.add(new Socket(host, port));
+        System.out.println("conexiones inactivas: " + idleSockets.size());
+        long deadline = System.nanoTime() + seconds * 1000000000L;
+        ExecutorService executor = GameServer.newPerTaskExecutor("load");
+        for (int i = 0; i < active; i++)
+            executor.execute(() -> play(deadline));
+        executor.shutdown();
+        executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        System.out.println("conexiones activas: " + active + ", duracion: " + seconds + " s");
+        System.out.println("movimientos: " + moves.get() + " (" + moves.get() / Math.max(seconds, 1) + "/s), errores: " + errors.get());
+        System.out.println("latencia p50: " + percentile(0.50) + " us, p99: " + percentile(0.99) + " us, p999: " + percentile(0.999) + " us");
+        try (Socket socket = new Socket(host, port)) {
+            Connection connection = new Connection(socket);
+            connection.readLine();
+            System.out.println("servidor: " + connection.request("stats"));
+            connection.request("quit");
+        }
+        for (Socket socket : idleSockets)
+            socket.close();
+    }
+
+    /*
+     * juega partidas al azar sobre una conexion hasta que se cumple el tiempo
+     */
+    private void play(long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            Connection connection = new Connection(socket);
+            connection.readLine();
+            int plies = 0;
+            while (System.nanoTime() < deadline) {
+                String[] legal = connection.request("moves").split(" ");
+                if (legal.length <= 1 || plies >= MAX_PLIES) {
+                    connection.request("new");
+                    plies = 0;
+                    continue;
+                }
+                long start = System.nanoTime();
+                String response = connection.request("move " + legal[1 + random.nextInt(legal.length - 1)]);
+                record((System.nanoTime() - start) / 1000L);
+                if (response.startsWith("error"))
+                    errors.incrementAndGet();
+                moves.incrementAndGet();
+                plies++;
+            }
+            connection.request("quit");
+        } catch (IOException e) {
+            errors.incrementAndGet();
+        }
+    }
+
+    private void record(long micros) {
+        latencies.incrementAndGet(Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1));
+    }
+
+    /*
+     * cota superior del percentil indicado, con la resolucion del histograma
+     */
+    private long percentile(double fraction) {
+        long total = 0L;
+        for (int i = 0; i < BUCKETS; i++)
+            total += latencies.get(i);
+        long target = (long) Math.ceil(total * fraction);
+        long count = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += latencies.get(i);
+            if (count >= target && count > 0)
+                return 1L << i;
+        }
+        return 0L;
+    }
+
+    /*
+     * lectura y escritura de lineas ascii sobre el socket, una respuesta por comando
+     */
+    private static class Connection {
+
+        private InputStream in;
+        private OutputStream out;
+        private StringBuilder line;
+
+        private Connection(Socket socket) throws IOException {
+            in = new BufferedInputStream(socket.getInputStream(), 4096);
+            out = socket.getOutputStream();
+            line = new StringBuilder(2048);
+        }
+
+        private String request(String command) throws IOException {
+            out.write((command + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return readLine();
+        }
+
+        private String readLine() throws IOException {
+            line.setLength(0);
+            int value;
+            while ((value = in.read()) != -1 && value != '\n')
+                line.append((char) value);
+            if (value == -1)
+                throw new IOException("conexion cerrada");
+            return line.toString();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package srs.server;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+
+import srs.GameSession;
+import srs.userinterface.UserInterfaceNetwork;
+import srs.util.ChessUtilities;
+import srs.util.Move;
+import srs.util.MoveGenerator;
+
+/*
+ * atiende una conexion del servidor: cada linea que envia el cliente es un comando y cada comando recibe
+ * exactamente una linea de respuesta, salvo "board" y "taken" que siempre responden una linea tambien
+ *
+ * "new" --------------> empieza una partida nueva desde la posicion inicial
+ * "move <movimiento>" -> juega el movimiento en notacion de coordenadas ("e2e4", "e7e8q"), sin pieza se promociona a dama
+ * "moves" ------------> lista los movimientos legales del jugador con el turno
+ * "board" ------------> el tablero de la fila 8 a la 1
+ * "taken" ------------> las piezas tomadas
+ * "stats" ------------> sesiones abiertas, movimientos jugados y memoria usada del servidor
+ * "quit" -------------> cierra la conexion
+ */
+public class SessionHandler implements Runnable {
+
+    private GameServer server;
+    private Socket socket;
+    private GameSession session;
+    private UserInterfaceNetwork userInterface;
+    private int[] moves;
+    private boolean finished;
+
+    public SessionHandler(GameServer server, Socket socket) {
+        this.server = server;
+        this.socket = socket;
+        moves = new int[MoveGenerator.MAX_MOVES];
+    }
+
+    public void run() {
+        try (Socket connection = socket) {
+            userInterface = new UserInterfaceNetwork(null, connection.getInputStream(), connection.getOutputStream());
+            newGame();
+            String line;
+            while ((line = userInterface.readLine()) != null)
+                if (!execute(line.trim()))
+                    break;
+        } catch (IOException | UncheckedIOException e) {
+            // VOID, el cliente cerro la conexion o vencio el tiempo de inactividad
+        } finally {
+            server.onSessionClosed();
+        }
+    }
+
+    /*
+     * ejecuta un comando y retorna un booleano indicando si la conexion sigue abierta
+     */
+    private boolean execute(String line) {
+        int space = line.indexOf(' ');
+        String command = space < 0 ? line : line.substring(0, space);
+        String argument = space < 0 ? "" : line.substring(space + 1).trim();
+        switch (command) {
+            case "new" -> newGame();
+            case "move" -> play(argument);
+            case "moves" -> listMoves();
+            case "board" -> userInterface.showBoard();
+            case "taken" -> userInterface.showPiecesTaken();
+            case "stats" -> userInterface.send(server.stats());
+            case "quit" -> {
+                userInterface.send("bye");
+                return false;
+            }
+            default -> userInterface.invalidInputMessage();
+        }
+        return true;
+    }
+
+    private void newGame() {
+        session = new GameSession();
+        session.initializePieces();
+        session.setUserInterface(userInterface);
+        userInterface.setSession(session);
+        finished = false;
+        userInterface.playerTurnMessage();
+    }
+
+    /*
+     * juega el movimiento si es legal, y responde de quien es el turno, si hay jaque, o como termino la partida
+     */
+    private void play(String input) {
+        int move = finished ? Move.NONE : findMove(input);
+        if (move == Move.NONE) {
+            userInterface.invalidMovementMessage();
+            return;
+        }
+        session.movePiece(move);
+        session.changePlayer();
+        server.onMovePlayed();
+        boolean check = ChessUtilities.isCheck(session);
+        if (MoveGenerator.generateMoves(session.getBoard(), moves) == 0) {
+            finished = true;
+            if (check)
+                userInterface.winnerMessage();
+            else
+                userInterface.drawMessage();
+        }
+        else if (check)
+            userInterface.checkMessage();
+        else
+            userInterface.playerTurnMessage();
+    }
+
+    private int findMove(String input) {
+        int count = MoveGenerator.generateMoves(session.getBoard(), moves);
+        for (int i = 0; i < count; i++) {
+            String name = Move.toString(moves[i]);
+            if (name.equals(input) || (name.length() == 5 && name.charAt(4) == 'q' && name.startsWith(input) && input.length() == 4))
+                return moves[i];
+        }
+        return Move.NONE;
+    }
+
+    private void listMoves() {
+        StringBuilder output = new StringBuilder("moves");
+        int count = finished ? 0 : MoveGenerator.generateMoves(session.getBoard(), moves);
+        for (int i = 0; i < count; i++)
+            output.append(' ').append(Move.toString(moves[i]));
+        userInterface.send(output.toString());
+    }
+}
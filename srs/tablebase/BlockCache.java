@@ -0,0 +1,125 @@
+package srs.tablebase;
+
+/*
+ * cache de bloques descomprimidos de las tablas de finales, compartida por todas las tablas y todos los hilos:
+ * cada bloque se identifica por la tabla y su numero, y su clave elige un conjunto de "WAYS" lugares,
+ * al llenarse un conjunto se descarta el bloque que hace mas tiempo que no se usa dentro de el
+ *
+ * cada conjunto tiene su propio candado, por lo que los hilos de la busqueda solo se esperan entre si
+ * cuando consultan bloques del mismo conjunto, y cada consulta recorre solo esos lugares
+ */
+public class BlockCache {
+
+    private static final int WAYS = 4;
+
+    private long[] keys; // tabla << 32 | bloque, -1 si el lugar esta libre, los lugares de cada conjunto son contiguos
+    private byte[][] blocks;
+    private long[] lastUsed;
+    private Object[] locks; // uno por conjunto
+    private long[] clocks; // contadores de uso, de consultas y de aciertos de cada conjunto, protegidos por su candado
+    private long[] probes;
+    private long[] hits;
+    private int mask;
+
+    public BlockCache(int capacity) {
+        int sets = Integer.highestOneBit(Math.max(capacity / WAYS, 1));
+        mask = sets - 1;
+        keys = new long[sets * WAYS];
+        blocks = new byte[keys.length][];
+        lastUsed = new long[keys.length];
+        locks = new Object[sets];
+        for (int i = 0; i < sets; i++)
+            locks[i] = new Object();
+        clocks = new long[sets];
+        probes = new long[sets];
+        hits = new long[sets];
+        clear();
+    }
+
+    public void clear() {
+        for (int set = 0; set < locks.length; set++)
+            synchronized (locks[set]) {
+                for (int i = set * WAYS; i < (set + 1) * WAYS; i++) {
+                    keys[i] = -1L;
+                    blocks[i] = null;
+                    lastUsed[i] = 0L;
+                }
+                clocks[set] = 0L;
+                probes[set] = 0L;
+                hits[set] = 0L;
+            }
+    }
+
+    /*
+     * retorna el bloque guardado, o null si no esta
+     */
+    public byte[] get(int table, int block) {
+        long key = key(table, block);
+        int set = set(key);
+        synchronized (locks[set]) {
+            probes[set]++;
+            for (int i = set * WAYS; i < (set + 1) * WAYS; i++)
+                if (keys[i] == key) {
+                    hits[set]++;
+                    lastUsed[i] = ++clocks[set];
+                    return blocks[i];
+                }
+        }
+        return null;
+    }
+
+    /*
+     * guarda el bloque en un lugar libre de su conjunto o en el del bloque usado hace mas tiempo,
+     * si otro hilo ya lo guardo solo se actualiza su uso
+     */
+    public void put(int table, int block, byte[] values) {
+        long key = key(table, block);
+        int set = set(key);
+        synchronized (locks[set]) {
+            int oldest = set * WAYS;
+            for (int i = set * WAYS; i < (set + 1) * WAYS; i++) {
+                if (keys[i] == key || keys[i] == -1L) {
+                    oldest = i;
+                    break;
+                }
+                if (lastUsed[i] < lastUsed[oldest])
+                    oldest = i;
+            }
+            keys[oldest] = key;
+            blocks[oldest] = values;
+            lastUsed[oldest] = ++clocks[set];
+        }
+    }
+
+    private static long key(int table, int block) {
+        return ((long) table << 32) | (block & 0xFFFFFFFFL);
+    }
+
+    /*
+     * mezcla la clave para que los bloques consecutivos de una tabla y las distintas tablas se repartan entre los conjuntos
+     */
+    private int set(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    // GETTERS & SETTERS
+
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    /*
+     * porcentaje de consultas que encontraron el bloque, en partes por mil
+     */
+    public int getHitRate() {
+        long totalProbes = 0L;
+        long totalHits = 0L;
+        for (int set = 0; set < locks.length; set++)
+            synchronized (locks[set]) {
+                totalProbes += probes[set];
+                totalHits += hits[set];
+            }
+        return totalProbes == 0 ? 0 : (int) (totalHits * 1000 / totalProbes);
+    }
+}
@@ -0,0 +1,248 @@
+package srs.tablebase;
+
+import srs.util.BitboardBoard;
+import srs.util.enums.ColorEnum;
+import srs.util.enums.PieceEnum;
+
+/*
+ * combinacion de piezas de una tabla de finales, con nombre como "KQvK" o "KRPvKR": primero el bando fuerte y despues
+ * el debil, cada uno en el orden rey, dama, torre, alfil, caballo y peon, y el nombre no depende del color que tiene cada bando
+ *
+ * el indice de una posicion es "((turno * 32 + rey fuerte) * 64 + casilla 1) * 64 + ... + casilla n-1", donde el turno es 0
+ * si mueve el bando fuerte, las posiciones se espejan para que el rey fuerte quede en las columnas a-d y el rey fuerte
+ * ocupa solo una de esas 32 casillas, las piezas iguales se ordenan por casilla para que cada posicion tenga un solo indice
+ */
+public class Material {
+
+    public static final int MAX_PIECES = 6;
+
+    private static final PieceEnum[] ORDER = {PieceEnum.KING, PieceEnum.QUEEN, PieceEnum.ROOK, PieceEnum.BISHOP, PieceEnum.KNIGHT, PieceEnum.PAWN};
+    private static final String LETTERS = "KQRBNP";
+    private static final int[] VALUES = {1, 0, 9, 3, 3, 5}; // indexada por "PieceEnum.ordinal()", solo para elegir el bando fuerte
+
+    private String name;
+    private PieceEnum[] types; // tipo de cada pieza en el orden del indice
+    private boolean[] strong; // si cada pieza es del bando fuerte
+    private int strongCode;
+    private int weakCode;
+    private long size;
+
+    private Material(int strongCode, int weakCode) {
+        if (value(weakCode) > value(strongCode) || (value(weakCode) == value(strongCode) && weakCode > strongCode)) {
+            int code = strongCode;
+            strongCode = weakCode;
+            weakCode = code;
+        }
+        this.strongCode = strongCode;
+        this.weakCode = weakCode;
+        int count = 0;
+        for (int code : new int[] {strongCode, weakCode})
+            for (PieceEnum type : PieceEnum.values())
+                count += count(code, type);
+        types = new PieceEnum[count];
+        strong = new boolean[count];
+        StringBuilder text = new StringBuilder(count + 1);
+        int slot = 0;
+        for (int side = 0; side < 2; side++) {
+            int code = side == 0 ? strongCode : weakCode;
+            if (side == 1)
+                text.append('v');
+            for (int i = 0; i < ORDER.length; i++)
+                for (int n = count(code, ORDER[i]); n > 0; n--) {
+                    types[slot] = ORDER[i];
+                    strong[slot++] = side == 0;
+                    text.append(LETTERS.charAt(i));
+                }
+        }
+        name = text.toString();
+        size = 2L * 32L << (6 * (count - 1));
+    }
+
+    /*
+     * lee un nombre como "KQvK" o "KvKQ", en cualquier orden de bandos, y lanza "IllegalArgumentException" si no es valido
+     */
+    public static Material parse(String name) {
+        int separator = name.indexOf('v');
+        if (separator < 0 || name.indexOf('v', separator + 1) >= 0)
+            throw new IllegalArgumentException("material no valido: " + name);
+        int[] codes = new int[2];
+        for (int side = 0; side < 2; side++) {
+            String pieces = side == 0 ? name.substring(0, separator) : name.substring(separator + 1);
+            for (int i = 0; i < pieces.length(); i++) {
+                int letter = LETTERS.indexOf(Character.toUpperCase(pieces.charAt(i)));
+                if (letter < 0)
+                    throw new IllegalArgumentException("material no valido: " + name);
+                codes[side] += 1 << (3 * ORDER[letter].ordinal());
+            }
+            if (count(codes[side], PieceEnum.KING) != 1)
+                throw new IllegalArgumentException("cada bando debe tener un rey: " + name);
+        }
+        Material output = new Material(codes[0], codes[1]);
+        if (output.types.length > MAX_PIECES)
+            throw new IllegalArgumentException("demasiadas piezas: " + name);
+        return output;
+    }
+
+    /*
+     * material de la posicion del tablero
+     */
+    public static Material of(BitboardBoard board) {
+        return new Material(code(board, ColorEnum.WHITE), code(board, ColorEnum.BLACK));
+    }
+
+    /*
+     * material con la cantidad de piezas de cada bando en el formato de "code", en cualquier orden
+     */
+    public static Material of(int codeOne, int codeTwo) {
+        return new Material(codeOne, codeTwo);
+    }
+
+    /*
+     * cantidad de piezas de cada tipo de un color, en 3 bits por tipo
+     */
+    public static int code(BitboardBoard board, ColorEnum color) {
+        int output = 0;
+        for (PieceEnum type : PieceEnum.values())
+            output += Long.bitCount(board.getPieces(color, type)) << (3 * type.ordinal());
+        return output;
+    }
+
+    public static int count(int code, PieceEnum type) {
+        return (code >>> (3 * type.ordinal())) & 7;
+    }
+
+    private static int value(int code) {
+        int output = 0;
+        for (PieceEnum type : PieceEnum.values())
+            output += count(code, type) * VALUES[type.ordinal()];
+        return output;
+    }
+
+    /*
+     * indice de la posicion del tablero, que debe tener este material, "flip" indica que el bando fuerte es el negro
+     * y el arreglo "squares" debe tener lugar para todas las piezas
+     */
+    public long index(BitboardBoard board, boolean flip, int[] squares) {
+        ColorEnum strongColor = flip ? ColorEnum.BLACK : ColorEnum.WHITE;
+        int slot = 0;
+        while (slot < types.length) {
+            ColorEnum color = strong[slot] ? strongColor : BitboardBoard.opponent(strongColor);
+            for (long iterator = board.getPieces(color, types[slot]); iterator != 0; iterator &= iterator-1)
+                squares[slot++] = Long.numberOfTrailingZeros(iterator) ^ (flip ? 56 : 0);
+        }
+        return index(squares, types.length, board.getSideToMove().equals(strongColor) ? 0 : 1);
+    }
+
+    /*
+     * indice de una posicion dada como lista de piezas, que debe tener este material, "flip" indica que el bando fuerte
+     * es el negro y el arreglo "buffer" debe tener lugar para todas las piezas
+     */
+    public long index(PieceEnum[] pieces, boolean[] white, int[] squares, int count, boolean whiteToMove, boolean flip, int[] buffer) {
+        int slot = 0;
+        while (slot < types.length) {
+            int group = slot;
+            for (int i = 0; i < count; i++)
+                if (pieces[i] == types[group] && white[i] == (strong[group] != flip))
+                    buffer[slot++] = squares[i] ^ (flip ? 56 : 0);
+            if (slot == group)
+                throw new IllegalArgumentException("la posicion no tiene el material " + name);
+        }
+        return index(buffer, types.length, whiteToMove != flip ? 0 : 1);
+    }
+
+    /*
+     * indice de la posicion con las casillas de cada pieza en el orden del material, vistas con el bando fuerte como blanco,
+     * el arreglo queda espejado y ordenado
+     */
+    public long index(int[] squares, int turn) {
+        return index(squares, squares.length, turn);
+    }
+
+    private long index(int[] squares, int count, int turn) {
+        if ((squares[0] & 7) >= 4)
+            for (int i = 0; i < count; i++)
+                squares[i] ^= 7;
+        for (int i = 1; i < count; i++)
+            for (int j = i; j > 0 && isSameGroup(j - 1, j) && squares[j - 1] > squares[j]; j--) {
+                int square = squares[j];
+                squares[j] = squares[j - 1];
+                squares[j - 1] = square;
+            }
+        long output = turn * 32 + (squares[0] >>> 3) * 4 + (squares[0] & 7);
+        for (int i = 1; i < count; i++)
+            output = (output << 6) | squares[i];
+        return output;
+    }
+
+    /*
+     * carga en el arreglo las casillas de cada pieza del indice y retorna el turno, la inversa de "index" para los indices
+     * canonicos, los demas se reconocen con "isCanonical"
+     */
+    public int squares(long index, int[] squares) {
+        for (int i = squares.length - 1; i > 0; i--) {
+            squares[i] = (int) (index & 63);
+            index >>>= 6;
+        }
+        int king = (int) (index & 31);
+        squares[0] = (king >>> 2) * 8 + (king & 3);
+        return (int) (index >>> 5);
+    }
+
+    /*
+     * si las piezas iguales estan ordenadas por casilla y no hay 2 piezas en la misma casilla
+     */
+    public boolean isCanonical(int[] squares) {
+        long used = 0L;
+        for (int i = 0; i < squares.length; i++) {
+            if ((used & (1L << squares[i])) != 0 || (i > 0 && isSameGroup(i - 1, i) && squares[i - 1] > squares[i]))
+                return false;
+            used |= 1L << squares[i];
+        }
+        return true;
+    }
+
+    private boolean isSameGroup(int one, int two) {
+        return types[one] == types[two] && strong[one] == strong[two];
+    }
+
+    public String toString() {
+        return name;
+    }
+
+    // GETTERS & SETTERS
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPieceCount() {
+        return types.length;
+    }
+
+    public PieceEnum getType(int slot) {
+        return types[slot];
+    }
+
+    public boolean isStrong(int slot) {
+        return strong[slot];
+    }
+
+    public int getPawnCount() {
+        return count(strongCode, PieceEnum.PAWN) + count(weakCode, PieceEnum.PAWN);
+    }
+
+    public int getStrongCode() {
+        return strongCode;
+    }
+
+    public int getWeakCode() {
+        return weakCode;
+    }
+
+    /*
+     * cantidad de indices, incluyendo los que no son posiciones validas
+     */
+    public long getSize() {
+        return size;
+    }
+}
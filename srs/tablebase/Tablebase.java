@@ -0,0 +1,196 @@
+package srs.tablebase;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import srs.util.AttackTables;
+import srs.util.BitboardBoard;
+import srs.util.Move;
+import srs.util.MoveGenerator;
+import srs.util.enums.ColorEnum;
+import srs.util.enums.PieceEnum;
+
+/*
+ * conjunto de tablas de finales de un directorio, una por material, que se consultan durante la busqueda
+ * y en la raiz cuando quedan pocas piezas: cada tabla da el resultado exacto y la distancia al mate con juego perfecto,
+ * y los bloques descomprimidos se comparten en una cache lru
+ *
+ * las posiciones con enroques disponibles o con una captura al paso posible no se consultan, y la regla de 50 movimientos
+ * no se tiene en cuenta
+ */
+public class Tablebase {
+
+    public static final int UNKNOWN = -1; // no hay tabla para la posicion
+    public static final int DRAW = 0;
+    public static final int ILLEGAL = 255; // indice que no es una posicion valida, nunca se retorna al consultar
+    public static final int DEFAULT_CACHE_BLOCKS = 256; // 8 mb de bloques descomprimidos
+    public static final int MAX_PIECES = BitboardBoard.SQUARES; // largo que alcanza para el arreglo de trabajo de cualquier consulta
+
+    private TablebaseFile[] files;
+    private BlockCache cache;
+    private int maxPieces;
+
+    /*
+     * abre todas las tablas con extension "TablebaseFile.EXTENSION" del directorio
+     */
+    public Tablebase(Path directory, int cacheBlocks) throws IOException {
+        ArrayList<TablebaseFile> list = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + TablebaseFile.EXTENSION)) {
+            for (Path path : stream)
+                list.add(TablebaseFile.open(path));
+        }
+        files = list.toArray(new TablebaseFile[0]);
+        cache = new BlockCache(cacheBlocks);
+        maxPieces = 2;
+        for (TablebaseFile file : files)
+            maxPieces = Math.max(maxPieces, file.getMaterial().getPieceCount());
+    }
+
+    /*
+     * resultado de la posicion para el jugador con el turno, "UNKNOWN" si no hay tabla o no se puede consultar,
+     * los valores se leen con "isWin", "isLoss" y "distance", con solo los 2 reyes siempre es "DRAW"
+     */
+    public int probe(BitboardBoard board) {
+        return probe(board, new int[MAX_PIECES]);
+    }
+
+    /*
+     * igual que "probe", usando un arreglo de trabajo del que llama, de largo "MAX_PIECES", para no crear objetos
+     * en cada consulta de la busqueda
+     */
+    public int probe(BitboardBoard board, int[] buffer) {
+        long occupied = board.getOccupied();
+        if (Long.bitCount(occupied) > maxPieces || board.getCastlingRights() != 0 || canCaptureEnPassant(board))
+            return UNKNOWN;
+        if (Long.bitCount(occupied) == 2)
+            return DRAW;
+        int white = Material.code(board, ColorEnum.WHITE);
+        int black = Material.code(board, ColorEnum.BLACK);
+        TablebaseFile file = find(white, black);
+        if (file == null)
+            return UNKNOWN;
+        Material material = file.getMaterial();
+        int output = file.get(material.index(board, material.getStrongCode() != white || material.getWeakCode() != black, buffer), cache);
+        return output == ILLEGAL ? UNKNOWN : output;
+    }
+
+    /*
+     * igual que "probe" para una posicion dada como lista de piezas, sin enroques ni captura al paso,
+     * el arreglo "buffer" debe tener lugar para todas las piezas
+     */
+    public int probe(PieceEnum[] pieces, boolean[] white, int[] squares, int count, boolean whiteToMove, int[] buffer) {
+        if (count == 2)
+            return DRAW;
+        int whiteCode = 0;
+        int blackCode = 0;
+        for (int i = 0; i < count; i++)
+            if (white[i])
+                whiteCode += 1 << (3 * pieces[i].ordinal());
+            else
+                blackCode += 1 << (3 * pieces[i].ordinal());
+        TablebaseFile file = find(whiteCode, blackCode);
+        if (file == null)
+            return UNKNOWN;
+        Material material = file.getMaterial();
+        boolean flip = material.getStrongCode() != whiteCode || material.getWeakCode() != blackCode;
+        int output = file.get(material.index(pieces, white, squares, count, whiteToMove, flip, buffer), cache);
+        return output == ILLEGAL ? UNKNOWN : output;
+    }
+
+    /*
+     * la tabla del material con las cantidades de piezas de cada color, con cualquiera de los 2 como bando fuerte
+     */
+    private TablebaseFile find(int white, int black) {
+        for (TablebaseFile file : files) {
+            Material material = file.getMaterial();
+            if ((material.getStrongCode() == white && material.getWeakCode() == black)
+                    || (material.getStrongCode() == black && material.getWeakCode() == white))
+                return file;
+        }
+        return null;
+    }
+
+    /*
+     * la casilla de captura al paso se marca en cada avance doble, pero solo cambia la posicion si algun peon puede capturar
+     */
+    private static boolean canCaptureEnPassant(BitboardBoard board) {
+        int square = board.getEnPassantSquare();
+        ColorEnum player = board.getSideToMove();
+        return square >= 0 && (AttackTables.pawnAttacks(BitboardBoard.opponent(player), square) & board.getPieces(player, PieceEnum.PAWN)) != 0;
+    }
+
+    /*
+     * el movimiento que gana mas rapido, o empata, o pierde mas lento, segun las tablas de las posiciones siguientes,
+     * o "Move.NONE" si falta la tabla de alguna de ellas o no hay movimientos legales
+     */
+    public int bestMove(BitboardBoard board) {
+        int[] buffer = new int[MAX_PIECES];
+        if (probe(board, buffer) == UNKNOWN)
+            return Move.NONE;
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateMoves(board, moves);
+        int output = Move.NONE;
+        int best = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            int value = probe(board, buffer);
+            board.unmakeMove(moves[i]);
+            if (value == UNKNOWN)
+                return Move.NONE;
+            int rank = rank(parent(value));
+            if (rank > best) {
+                best = rank;
+                output = moves[i];
+            }
+        }
+        return output;
+    }
+
+    /*
+     * valor de la posicion anterior si el rival tiene el valor pasado por parametro despues del mejor movimiento
+     */
+    public static int parent(int value) {
+        return value == DRAW ? DRAW : value + 1;
+    }
+
+    /*
+     * orden de preferencia de un valor: ganar en menos movimientos, empatar, y perder en mas movimientos
+     */
+    private static int rank(int value) {
+        if (value == DRAW)
+            return 0;
+        return isWin(value) ? ILLEGAL - value : value - ILLEGAL;
+    }
+
+    public static boolean isWin(int value) {
+        return value != DRAW && value != UNKNOWN && (value & 1) == 0;
+    }
+
+    public static boolean isLoss(int value) {
+        return value != UNKNOWN && (value & 1) == 1 && value != ILLEGAL;
+    }
+
+    /*
+     * medios movimientos hasta el mate de un valor ganado o perdido
+     */
+    public static int distance(int value) {
+        return value - 1;
+    }
+
+    // GETTERS & SETTERS
+
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    public int getTableCount() {
+        return files.length;
+    }
+
+    public BlockCache getCache() {
+        return cache;
+    }
+}
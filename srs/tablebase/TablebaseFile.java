@@ -0,0 +1,170 @@
+package srs.tablebase;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/*
+ * una tabla de finales en disco, mapeada en memoria con "FileChannel.map": un byte por indice de "Material",
+ * comprimido con deflate en bloques de "BLOCK_SIZE" indices para poder leer uno sin descomprimir la tabla entera
+ *
+ * formato: "SRTB", version, largo del nombre del material y el nombre en ascii, indices por bloque (int),
+ * cantidad de indices (long), cantidad de bloques (int), la posicion en el archivo donde empieza cada bloque
+ * y donde termina el ultimo (longs), y los bloques comprimidos
+ *
+ * cada byte es "Tablebase.DRAW", "Tablebase.ILLEGAL", o la cantidad de medios movimientos hasta el mate mas 1:
+ * impar si el jugador con el turno pierde y par si gana, sin contar la regla de 50 movimientos
+ */
+public class TablebaseFile {
+
+    public static final String EXTENSION = ".srtb";
+    public static final int BLOCK_SIZE = 1 << 15;
+
+    private static final byte[] MAGIC = {'S', 'R', 'T', 'B'};
+    private static final int VERSION = 1;
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private int id; // identifica los bloques de esta tabla en la cache
+    private Material material;
+    private MappedByteBuffer data;
+    private int blockSize;
+    private long size;
+    private long[] offsets;
+
+    private TablebaseFile(Material material, MappedByteBuffer data, int blockSize, long size, long[] offsets) {
+        id = NEXT_ID.getAndIncrement();
+        this.material = material;
+        this.data = data;
+        this.blockSize = blockSize;
+        this.size = size;
+        this.offsets = offsets;
+    }
+
+    /*
+     * mapea el archivo y lee su encabezado, los bloques se descomprimen recien cuando se consultan
+     */
+    public static TablebaseFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                for (byte b : MAGIC)
+                    if (data.get() != b)
+                        throw new IOException("el archivo no es una tabla de finales: " + path);
+                if (data.get() != VERSION)
+                    throw new IOException("version de tabla de finales no soportada: " + path);
+                byte[] name = new byte[data.get() & 0xFF];
+                data.get(name);
+                Material material = Material.parse(new String(name, StandardCharsets.US_ASCII));
+                int blockSize = data.getInt();
+                long size = data.getLong();
+                long[] offsets = new long[data.getInt() + 1];
+                for (int i = 0; i < offsets.length; i++)
+                    offsets[i] = data.getLong();
+                if (size != material.getSize() || blockSize <= 0 || (size + blockSize - 1) / blockSize != offsets.length - 1
+                        || offsets[offsets.length - 1] != channel.size())
+                    throw new IOException("tabla de finales corrupta: " + path);
+                return new TablebaseFile(material, data, blockSize, size, offsets);
+            } catch (RuntimeException e) {
+                throw new IOException("tabla de finales corrupta: " + path, e);
+            }
+        }
+    }
+
+    /*
+     * escribe una tabla con un valor por cada indice del material
+     */
+    public static void write(Path path, Material material, byte[] values) throws IOException {
+        if (values.length != material.getSize())
+            throw new IllegalArgumentException("la tabla " + material + " debe tener " + material.getSize() + " valores");
+        int blocks = (values.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        byte[][] compressed = new byte[blocks][];
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        byte[] buffer = new byte[BLOCK_SIZE + 1024];
+        try {
+            for (int block = 0; block < blocks; block++) {
+                deflater.reset();
+                deflater.setInput(values, block * BLOCK_SIZE, Math.min(BLOCK_SIZE, values.length - block * BLOCK_SIZE));
+                deflater.finish();
+                int length = 0;
+                while (!deflater.finished())
+                    length += deflater.deflate(buffer, length, buffer.length - length);
+                compressed[block] = Arrays.copyOf(buffer, length);
+            }
+        } finally {
+            deflater.end();
+        }
+        byte[] name = material.getName().getBytes(StandardCharsets.US_ASCII);
+        long offset = MAGIC.length + 2 + name.length + Integer.BYTES + Long.BYTES + Integer.BYTES + (blocks + 1L) * Long.BYTES;
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            output.write(MAGIC);
+            output.writeByte(VERSION);
+            output.writeByte(name.length);
+            output.write(name);
+            output.writeInt(BLOCK_SIZE);
+            output.writeLong(values.length);
+            output.writeInt(blocks);
+            for (byte[] block : compressed) {
+                output.writeLong(offset);
+                offset += block.length;
+            }
+            output.writeLong(offset);
+            for (byte[] block : compressed)
+                output.write(block);
+        }
+    }
+
+    /*
+     * valor guardado para el indice, buscando el bloque en la cache o descomprimiendolo y agregandolo
+     */
+    public int get(long index, BlockCache cache) {
+        int block = (int) (index / blockSize);
+        byte[] values = cache.get(id, block);
+        if (values == null) {
+            values = inflate(block);
+            cache.put(id, block, values);
+        }
+        return values[(int) (index % blockSize)] & 0xFF;
+    }
+
+    private byte[] inflate(int block) {
+        byte[] output = new byte[(int) Math.min(blockSize, size - (long) block * blockSize)];
+        ByteBuffer input = data.slice((int) offsets[block], (int) (offsets[block + 1] - offsets[block]));
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            int length = 0;
+            while (length < output.length && !inflater.finished() && !inflater.needsInput())
+                length += inflater.inflate(output, length, output.length - length);
+            if (length != output.length)
+                throw new DataFormatException("bloque incompleto");
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("bloque " + block + " de la tabla " + material + " corrupto", e));
+        } finally {
+            inflater.end();
+        }
+        return output;
+    }
+
+    // GETTERS & SETTERS
+
+    public Material getMaterial() {
+        return material;
+    }
+
+    public int getBlockCount() {
+        return offsets.length - 1;
+    }
+}
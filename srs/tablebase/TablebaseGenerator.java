@@ -0,0 +1,543 @@
+package srs.tablebase;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import srs.pieces.Piece;
+import srs.util.AttackTables;
+import srs.util.BitboardBoard;
+import srs.util.Fen;
+import srs.util.MoveGenerator;
+import srs.util.enums.ColorEnum;
+import srs.util.enums.PieceEnum;
+import srs.util.factory.Factory;
+
+/*
+ * genera tablas de finales exactas de 3 y 4 piezas con analisis retrogrado sobre los indices de "Material":
+ * primero se marcan los mates y se cuentan los movimientos de cada posicion que no salen de la tabla, y despues,
+ * en cada pasada "n", se recorren hacia atras los movimientos de las posiciones resueltas en la pasada anterior,
+ * las que llegan a una derrota en "n - 1" ganan en "n", y las que agotan sus movimientos llegando a victorias del rival
+ * pierden en "n", hasta que una pasada no resuelve nada y el resto son tablas
+ *
+ * las capturas y promociones salen de la tabla y toman su valor de las tablas ya generadas, cada pasada se reparte
+ * en un pool fork-join y las marcas por posicion se guardan en mascaras de bits, al terminar se verifica una muestra
+ * de posiciones armandolas con piezas en un tablero y comparando con los movimientos legales de "MoveGenerator"
+ *
+ * la captura al paso no se tiene en cuenta, igual que al consultar las tablas
+ *
+ * uso: "TablebaseGenerator [directorio] [hilos] [material...]", por ejemplo "TablebaseGenerator tablas 4 KQvK KRvK KPvK KQvKR",
+ * las tablas de las que dependen se generan antes si todavia no estan en el directorio
+ */
+public class TablebaseGenerator {
+
+    public static final int MAX_PIECES = 4;
+
+    private static final int CHUNK = 1 << 14; // indices por tarea del pool, multiplo de 64 para no compartir palabras de las mascaras
+    private static final int VERIFY_SAMPLES = 20000;
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final PieceEnum[] PROMOTIONS = {PieceEnum.QUEEN, PieceEnum.ROOK, PieceEnum.BISHOP, PieceEnum.KNIGHT};
+
+    private Path directory;
+    private ForkJoinPool pool;
+
+    // estado de la tabla que se esta generando, el bando fuerte juega con blancas
+    private Material material;
+    private Tablebase dependencies; // tablas a las que se llega con una captura o una promocion
+    private PieceEnum[] types;
+    private boolean[] white;
+    private byte[] values;
+    private int[] remaining; // movimientos dentro de la tabla que todavia no llevan a una victoria del rival, un byte por posicion
+    private byte[] exits; // mejor valor que se consigue saliendo de la tabla, 0 si ninguna salida gana o pierde
+    private long[] noLoss; // posiciones con una salida que no pierde, que nunca pueden perder
+    private long[] waiting; // posiciones cuyo valor depende de una salida y se resuelven en la pasada de su distancia
+    private long[] frontier; // posiciones resueltas en la pasada anterior
+    private long[] next;
+
+    private interface Range {
+        void run(long from, long to);
+    }
+
+    public TablebaseGenerator(Path directory, int threads) {
+        this.directory = directory;
+        pool = new ForkJoinPool(Math.max(threads, 1));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length >= 1 ? args[0] : "tablas");
+        int threads = args.length >= 2 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        ArrayList<String> names = new ArrayList<>();
+        for (int i = 2; i < args.length; i++)
+            names.add(args[i]);
+        if (names.isEmpty())
+            names.add("KQvK");
+        Files.createDirectories(directory);
+        TablebaseGenerator generator = new TablebaseGenerator(directory, threads);
+        try {
+            generator.generate(names);
+        } finally {
+            generator.pool.shutdown();
+        }
+    }
+
+    /*
+     * genera las tablas pedidas y las que necesitan, de menos a mas piezas y de menos a mas peones,
+     * salteando las que ya estan en el directorio
+     */
+    public void generate(Iterable<String> names) throws IOException {
+        ArrayList<Material> list = new ArrayList<>();
+        for (String name : names)
+            addWithDependencies(Material.parse(name), list);
+        list.sort(Comparator.comparingInt(Material::getPieceCount).thenComparingInt(Material::getPawnCount));
+        for (Material table : list)
+            if (!Files.exists(path(table)))
+                generate(table);
+    }
+
+    private static void addWithDependencies(Material table, ArrayList<Material> list) {
+        if (table.getPieceCount() > MAX_PIECES)
+            throw new IllegalArgumentException("solo se generan tablas de hasta " + MAX_PIECES + " piezas: " + table);
+        for (Material other : list)
+            if (other.getName().equals(table.getName()))
+                return;
+        list.add(table);
+        int strong = table.getStrongCode();
+        int weak = table.getWeakCode();
+        for (int slot = 1; slot < table.getPieceCount(); slot++) {
+            PieceEnum type = table.getType(slot);
+            if (type == PieceEnum.KING)
+                continue;
+            int removed = 1 << (3 * type.ordinal());
+            if (table.getPieceCount() > 3)
+                addWithDependencies(table.isStrong(slot) ? Material.of(strong - removed, weak) : Material.of(strong, weak - removed), list);
+            if (type == PieceEnum.PAWN)
+                for (PieceEnum promotion : PROMOTIONS) {
+                    int added = 1 << (3 * promotion.ordinal());
+                    addWithDependencies(table.isStrong(slot) ? Material.of(strong - removed + added, weak) : Material.of(strong, weak - removed + added), list);
+                }
+        }
+    }
+
+    private Path path(Material table) {
+        return directory.resolve(table.getName() + TablebaseFile.EXTENSION);
+    }
+
+    /*
+     * genera, escribe y verifica la tabla de un material
+     */
+    public void generate(Material table) throws IOException {
+        long start = System.nanoTime();
+        material = table;
+        dependencies = new Tablebase(directory, Tablebase.DEFAULT_CACHE_BLOCKS);
+        int size = (int) table.getSize();
+        types = new PieceEnum[table.getPieceCount()];
+        white = new boolean[table.getPieceCount()];
+        for (int slot = 0; slot < types.length; slot++) {
+            types[slot] = table.getType(slot);
+            white[slot] = table.isStrong(slot);
+        }
+        values = new byte[size];
+        remaining = new int[(size + 3) >>> 2];
+        exits = new byte[size];
+        noLoss = new long[(size + 63) >>> 6];
+        waiting = new long[noLoss.length];
+        frontier = new long[noLoss.length];
+        next = new long[noLoss.length];
+        forEach(size, this::initialize);
+        int passes = 0;
+        for (int n = 1; n < Tablebase.ILLEGAL - 1; n++) {
+            int distance = n;
+            Arrays.fill(next, 0L);
+            forEach(size, (from, to) -> retrograde(from, to, distance));
+            forEach(size, (from, to) -> resolveWaiting(from, to, distance));
+            long[] swap = frontier;
+            frontier = next;
+            next = swap;
+            passes = n;
+            if (isEmpty(frontier) && isEmpty(waiting))
+                break;
+        }
+        TablebaseFile.write(path(table), table, values);
+        long millis = (System.nanoTime() - start) / 1000000L;
+        report(passes, millis);
+        verify();
+        values = null;
+        remaining = null;
+        exits = null;
+    }
+
+    /*
+     * marca las posiciones ilegales y los mates, cuenta los movimientos que quedan en la tabla,
+     * y guarda el mejor valor de las capturas y promociones
+     */
+    private void initialize(long from, long to) {
+        int[] squares = new int[types.length];
+        int[] child = new int[types.length];
+        PieceEnum[] childTypes = new PieceEnum[types.length];
+        boolean[] childWhite = new boolean[types.length];
+        int[] buffer = new int[types.length];
+        for (long index = from; index < to; index++) {
+            int i = (int) index;
+            int turn = material.squares(index, squares);
+            boolean whiteToMove = turn == 0;
+            if (!isLegal(squares, whiteToMove)) {
+                values[i] = (byte) Tablebase.ILLEGAL;
+                continue;
+            }
+            long occupied = occupied(squares, -1);
+            int count = 0;
+            int best = -1; // mejor valor de las salidas, -1 si no hay
+            for (int slot = 0; slot < types.length; slot++) {
+                if (white[slot] != whiteToMove)
+                    continue;
+                int origin = squares[slot];
+                ColorEnum color = color(slot);
+                long targets;
+                if (types[slot] == PieceEnum.PAWN)
+                    targets = AttackTables.pawnPushes(color, origin, occupied, (origin >>> 3) != (whiteToMove ? 6 : 1))
+                            | (AttackTables.pawnAttacks(color, origin) & pieces(squares, !whiteToMove));
+                else
+                    targets = AttackTables.attacks(types[slot], color, origin, occupied) & ~pieces(squares, whiteToMove);
+                for (; targets != 0; targets &= targets-1) {
+                    int target = Long.numberOfTrailingZeros(targets);
+                    int captured = slotAt(squares, target);
+                    squares[slot] = target;
+                    boolean legal = !isAttacked(squares, king(squares, whiteToMove), !whiteToMove, captured);
+                    boolean promotion = types[slot] == PieceEnum.PAWN && (target < 8 || target >= 56);
+                    if (legal && captured < 0 && !promotion)
+                        count++;
+                    else if (legal) {
+                        int length = 0;
+                        for (int other = 0; other < types.length; other++)
+                            if (other != captured) {
+                                childTypes[length] = types[other];
+                                childWhite[length] = white[other];
+                                child[length++] = squares[other];
+                            }
+                        int position = slot < captured || captured < 0 ? slot : slot - 1;
+                        for (int k = 0; k < (promotion ? PROMOTIONS.length : 1); k++) {
+                            if (promotion)
+                                childTypes[position] = PROMOTIONS[k];
+                            int value = dependencies.probe(childTypes, childWhite, child, length, !whiteToMove, buffer);
+                            if (value == Tablebase.UNKNOWN)
+                                throw new IllegalStateException("falta la tabla de una captura o promocion de " + material);
+                            value = Tablebase.parent(value);
+                            if (best < 0 || rank(value) > rank(best))
+                                best = value;
+                        }
+                    }
+                    squares[slot] = origin;
+                }
+            }
+            remaining[i >>> 2] |= count << ((i & 3) << 3);
+            if (best >= 0) {
+                if (best == Tablebase.DRAW || Tablebase.isWin(best))
+                    setBit(noLoss, i);
+                if (best != Tablebase.DRAW) {
+                    exits[i] = (byte) best;
+                    if (Tablebase.isWin(best) || count == 0)
+                        setBit(waiting, i);
+                }
+            }
+            else if (count == 0 && isAttacked(squares, king(squares, whiteToMove), !whiteToMove, -1)) {
+                values[i] = 1; // mate, pierde en 0 medios movimientos
+                setBit(frontier, i);
+            }
+        }
+    }
+
+    /*
+     * recorre hacia atras los movimientos de las posiciones resueltas en la pasada anterior: en las pasadas impares
+     * esas posiciones son derrotas y sus anteriores ganan en "n", y en las pares son victorias y a sus anteriores
+     * les queda un movimiento menos para escapar
+     */
+    private void retrograde(long from, long to, int n) {
+        int[] squares = new int[types.length];
+        int[] previous = new int[types.length];
+        for (int word = (int) (from >>> 6); word < (to + 63) >>> 6; word++)
+            for (long bits = frontier[word]; bits != 0; bits &= bits-1) {
+                long index = ((long) word << 6) + Long.numberOfTrailingZeros(bits);
+                int turn = material.squares(index, squares);
+                boolean moverWhite = turn == 1; // el que acaba de mover es el que no tiene el turno
+                long occupied = occupied(squares, -1);
+                for (int slot = 0; slot < types.length; slot++) {
+                    if (white[slot] != moverWhite)
+                        continue;
+                    for (long origins = origins(slot, squares[slot], occupied); origins != 0; origins &= origins-1) {
+                        System.arraycopy(squares, 0, previous, 0, squares.length);
+                        previous[slot] = Long.numberOfTrailingZeros(origins);
+                        int q = (int) material.index(previous, 1 - turn);
+                        if (values[q] != 0)
+                            continue;
+                        if ((n & 1) == 1) {
+                            values[q] = (byte) (n + 1);
+                            setBit(next, q);
+                        }
+                        else if (decrement(q) == 1 && !getBit(noLoss, q)) {
+                            if (exits[q] == 0 || Tablebase.distance(exits[q] & 0xFF) <= n) {
+                                values[q] = (byte) (n + 1);
+                                setBit(next, q);
+                            }
+                            else
+                                setBit(waiting, q);
+                        }
+                    }
+                }
+            }
+    }
+
+    /*
+     * resuelve las posiciones que esperaban la pasada de la distancia de su salida: las que ganan saliendo de la tabla,
+     * si no encontraron antes una victoria mas corta, y las que pierden con una salida mas lejana que sus movimientos
+     */
+    private void resolveWaiting(long from, long to, int n) {
+        for (int word = (int) (from >>> 6); word < (to + 63) >>> 6; word++)
+            for (long bits = waiting[word]; bits != 0; bits &= bits-1) {
+                int q = (word << 6) + Long.numberOfTrailingZeros(bits);
+                int exit = exits[q] & 0xFF;
+                if (values[q] != 0)
+                    clearBit(waiting, q);
+                else if (Tablebase.distance(exit) == n && (Tablebase.isWin(exit) || getRemaining(q) == 0)) {
+                    values[q] = (byte) exit;
+                    setBit(next, q);
+                    clearBit(waiting, q);
+                }
+            }
+    }
+
+    /*
+     * casillas desde las que pudo haber llegado la pieza sin capturar, los peones retroceden y el resto se mueve igual
+     * que hacia adelante
+     */
+    private long origins(int slot, int square, long occupied) {
+        if (types[slot] != PieceEnum.PAWN)
+            return AttackTables.attacks(types[slot], color(slot), square, occupied) & ~occupied;
+        int step = white[slot] ? 8 : -8;
+        int origin = square + step;
+        if (origin < 8 || origin >= 56 || (occupied & (1L << origin)) != 0)
+            return 0L;
+        long output = 1L << origin;
+        if ((square >>> 3) == (white[slot] ? 4 : 3) && (occupied & (1L << (origin + step))) == 0)
+            output |= 1L << (origin + step);
+        return output;
+    }
+
+    /*
+     * posicion canonica, sin peones en la primera ni la ultima fila, y sin el rey del jugador sin el turno en jaque
+     */
+    private boolean isLegal(int[] squares, boolean whiteToMove) {
+        if (!material.isCanonical(squares))
+            return false;
+        for (int slot = 0; slot < types.length; slot++)
+            if (types[slot] == PieceEnum.PAWN && (squares[slot] < 8 || squares[slot] >= 56))
+                return false;
+        return !isAttacked(squares, king(squares, !whiteToMove), whiteToMove, -1);
+    }
+
+    /*
+     * si alguna pieza del color indicado ataca la casilla, sin contar la pieza capturada
+     */
+    private boolean isAttacked(int[] squares, int square, boolean byWhite, int captured) {
+        long occupied = occupied(squares, captured);
+        for (int slot = 0; slot < types.length; slot++)
+            if (white[slot] == byWhite && slot != captured
+                    && (AttackTables.attacks(types[slot], color(slot), squares[slot], occupied) & (1L << square)) != 0)
+                return true;
+        return false;
+    }
+
+    private int king(int[] squares, boolean whiteKing) {
+        for (int slot = 0; slot < types.length; slot++)
+            if (types[slot] == PieceEnum.KING && white[slot] == whiteKing)
+                return squares[slot];
+        return -1;
+    }
+
+    private int slotAt(int[] squares, int square) {
+        for (int slot = 0; slot < types.length; slot++)
+            if (squares[slot] == square)
+                return slot;
+        return -1;
+    }
+
+    private long occupied(int[] squares, int skip) {
+        long output = 0L;
+        for (int slot = 0; slot < types.length; slot++)
+            if (slot != skip)
+                output |= 1L << squares[slot];
+        return output;
+    }
+
+    private long pieces(int[] squares, boolean whitePieces) {
+        long output = 0L;
+        for (int slot = 0; slot < types.length; slot++)
+            if (white[slot] == whitePieces)
+                output |= 1L << squares[slot];
+        return output;
+    }
+
+    private ColorEnum color(int slot) {
+        return white[slot] ? ColorEnum.WHITE : ColorEnum.BLACK;
+    }
+
+    /*
+     * orden de preferencia de un valor: ganar en menos movimientos, empatar, y perder en mas movimientos
+     */
+    private static int rank(int value) {
+        if (value == Tablebase.DRAW)
+            return 0;
+        return Tablebase.isWin(value) ? Tablebase.ILLEGAL - value : value - Tablebase.ILLEGAL;
+    }
+
+    /*
+     * reparte los indices de 0 a "size" en tareas del pool y espera a que terminen todas
+     */
+    private void forEach(long size, Range range) {
+        pool.invoke(new RangeTask(range, 0L, size));
+    }
+
+    private static class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private Range range;
+        private long from;
+        private long to;
+
+        private RangeTask(Range range, long from, long to) {
+            this.range = range;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            if (to - from <= CHUNK) {
+                range.run(from, to);
+                return;
+            }
+            long middle = from + Math.max(((to - from) >>> 1) & -CHUNK, CHUNK);
+            invokeAll(new RangeTask(range, from, middle), new RangeTask(range, middle, to));
+        }
+    }
+
+    /*
+     * resta 1 al contador de la posicion y retorna el valor anterior, los contadores nunca bajan de 0
+     * por lo que la resta no afecta a los otros 3 del mismo int
+     */
+    private int decrement(int index) {
+        int shift = (index & 3) << 3;
+        return ((int) INTS.getAndAdd(remaining, index >>> 2, -(1 << shift)) >>> shift) & 0xFF;
+    }
+
+    private int getRemaining(int index) {
+        return (remaining[index >>> 2] >>> ((index & 3) << 3)) & 0xFF;
+    }
+
+    private static void setBit(long[] bits, int index) {
+        LONGS.getAndBitwiseOr(bits, index >>> 6, 1L << index);
+    }
+
+    private static void clearBit(long[] bits, int index) {
+        LONGS.getAndBitwiseAnd(bits, index >>> 6, ~(1L << index));
+    }
+
+    private static boolean getBit(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static boolean isEmpty(long[] bits) {
+        for (long word : bits)
+            if (word != 0)
+                return false;
+        return true;
+    }
+
+    private void report(int passes, long millis) {
+        long wins = 0L;
+        long losses = 0L;
+        long draws = 0L;
+        int longest = -1;
+        for (int i = 0; i < values.length; i++) {
+            int value = values[i] & 0xFF;
+            if (value == Tablebase.ILLEGAL)
+                continue;
+            if (value == Tablebase.DRAW)
+                draws++;
+            else if (Tablebase.isWin(value))
+                wins++;
+            else
+                losses++;
+            if (value != Tablebase.DRAW && (longest < 0 || value > (values[longest] & 0xFF)))
+                longest = i;
+        }
+        System.out.printf("%s: %d pasadas, %d ms, %d ganadas, %d perdidas, %d tablas%n", material, passes, millis, wins, losses, draws);
+        if (longest >= 0) {
+            BitboardBoard board = new BitboardBoard();
+            int[] squares = new int[types.length];
+            setUp(board, squares, material.squares(longest, squares));
+            System.out.printf("mate mas largo: %d medios movimientos, %s%n", Tablebase.distance(values[longest] & 0xFF), Fen.toString(board));
+        }
+    }
+
+    /*
+     * arma posiciones al azar de la tabla con piezas en un tablero y compara su valor con el de sus movimientos legales,
+     * lanza "IllegalStateException" si alguna no coincide
+     */
+    private void verify() throws IOException {
+        Tablebase tablebase = new Tablebase(directory, Tablebase.DEFAULT_CACHE_BLOCKS);
+        BitboardBoard board = new BitboardBoard();
+        int[] squares = new int[types.length];
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        Random random = new Random(values.length);
+        int checked = 0;
+        for (int sample = 0; sample < VERIFY_SAMPLES; sample++) {
+            long index = (random.nextLong() >>> 1) % values.length;
+            if ((values[(int) index] & 0xFF) == Tablebase.ILLEGAL)
+                continue;
+            setUp(board, squares, material.squares(index, squares));
+            int value = tablebase.probe(board);
+            int count = MoveGenerator.generateMoves(board, moves);
+            int expected = Tablebase.DRAW;
+            if (count == 0) {
+                ColorEnum player = board.getSideToMove();
+                if (board.getAttackMap().isAttacked(BitboardBoard.opponent(player), board.kingSquare(player)))
+                    expected = 1;
+            }
+            boolean known = true;
+            for (int i = 0; i < count && known; i++) {
+                board.makeMove(moves[i]);
+                int child = tablebase.probe(board);
+                board.unmakeMove(moves[i]);
+                known = child != Tablebase.UNKNOWN; // un avance doble que permite capturar al paso
+                if (i == 0 || rank(Tablebase.parent(child)) > rank(expected))
+                    expected = Tablebase.parent(child);
+            }
+            if (!known)
+                continue;
+            if (value != expected)
+                throw new IllegalStateException("la tabla " + material + " no coincide en " + Fen.toString(board) + ": " + value + " en lugar de " + expected);
+            checked++;
+        }
+        System.out.printf("%s: %d posiciones verificadas%n", material, checked);
+    }
+
+    private void setUp(BitboardBoard board, int[] squares, int turn) {
+        board.clear();
+        for (int slot = 0; slot < types.length; slot++) {
+            Piece piece = Factory.createPiece(types[slot], color(slot));
+            piece.setWasMoved(true); // sin enroques
+            board.setPiece(piece, squares[slot]);
+        }
+        board.setSideToMove(turn == 0 ? ColorEnum.WHITE : ColorEnum.BLACK);
+    }
+}
@@ -0,0 +1,236 @@
+package srs.userinterface;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+
+import srs.pieces.Piece;
+import srs.util.Board;
+import srs.util.Position;
+
+/*
+ * arma cada cuadro de la interfaz de consola en un unico "StringBuilder" que se reutiliza y lo escribe de una vez:
+ * entre "beginFrame" y "endFrame" los metodos de dibujo solo agregan al cuadro, y fuera de un cuadro cada uno
+ * se escribe por su cuenta
+ *
+ * en modo diferencial, una vez dibujado el tablero completo ya no se limpia la pantalla: solo se reescriben,
+ * con secuencias ansi de posicion del cursor, las casillas que cambiaron desde el ultimo cuadro,
+ * y se borra lo que esta debajo del tablero
+ */
+public class ConsoleRenderer {
+
+    private static final String CLEAR_SCREEN = "\033[H\033[2J";
+    private static final String CLEAR_BELOW = "\033[J";
+    private static final int BOARD_LINES = 37; // lineas que ocupa el tablero completo
+    private static final int EMPTY = 12; // codigo de una casilla vacia, las piezas van de 0 a 11
+    private static final int UNKNOWN = -1; // la casilla todavia no se dibujo
+    private static final String EDGE = "||===||===============================================================================================||===||";
+    private static final String LETTERS = "||   ||     A     |     B     |     C     |     D     |     E     |     F     |     G     |     H     ||   ||";
+    private static final String SEPARATOR = "||---||-----------|-----------|-----------|-----------|-----------|-----------|-----------|-----------||---||";
+    private static final String SPACER = "||   ||           |           |           |           |           |           |           |           ||   ||";
+
+    private PrintWriter output;
+    private boolean differential;
+    private StringBuilder frame;
+    private char[] chars; // copia del cuadro para escribirlo sin crear un "String"
+    private boolean inFrame;
+    private int[] drawn; // codigo de lo que muestra cada casilla en pantalla, indexado como "Position.getSquare"
+    private boolean boardOnScreen;
+
+    public ConsoleRenderer(PrintStream output, boolean differential) {
+        this.output = new PrintWriter(output, false);
+        this.differential = differential;
+        frame = new StringBuilder(8192);
+        chars = new char[8192];
+        inFrame = false;
+        drawn = new int[64];
+        invalidate();
+    }
+
+    /*
+     * comienza un cuadro, lo que se dibuje hasta "endFrame" se escribe en una sola operacion
+     */
+    public void beginFrame() {
+        frame.setLength(0);
+        inFrame = true;
+    }
+
+    /*
+     * escribe el cuadro en curso, si lo hay
+     */
+    public void endFrame() {
+        if (!inFrame)
+            return;
+        inFrame = false;
+        flush();
+    }
+
+    /*
+     * limpia la pantalla, en modo diferencial con el tablero ya dibujado solo borra lo que esta debajo de el
+     */
+    public void clear() {
+        start();
+        if (differential && boardOnScreen)
+            moveCursor(BOARD_LINES + 1, 1).append(CLEAR_BELOW);
+        else {
+            frame.append(CLEAR_SCREEN);
+            boardOnScreen = false;
+        }
+        finish();
+    }
+
+    /*
+     * obliga a que el proximo tablero se dibuje completo, por ejemplo si algo mas limpio la pantalla
+     */
+    public void invalidate() {
+        boardOnScreen = false;
+        for (int i = 0; i < drawn.length; i++)
+            drawn[i] = UNKNOWN;
+    }
+
+    public void renderBoard(Board board) {
+        start();
+        if (differential && boardOnScreen)
+            appendChanges(board);
+        else
+            appendBoard(board);
+        finish();
+    }
+
+    private void appendBoard(Board board) {
+        frame.append(EDGE).append('\n').append(LETTERS).append('\n').append(EDGE).append('\n');
+        for (int y = 0; y < 8; y++) {
+            if (y > 0)
+                frame.append(SEPARATOR).append('\n');
+            frame.append("||   |");
+            for (int x = 0; x < 8; x++)
+                appendName(frame.append('|'), board.getPiece(Position.of(x, y)));
+            frame.append("||   ||\n");
+            frame.append("|| ").append(8 - y).append(" |");
+            for (int x = 0; x < 8; x++)
+                appendColor(frame.append('|'), board.getPiece(Position.of(x, y)));
+            frame.append("|| ").append(8 - y).append(" ||\n");
+            frame.append(SPACER).append('\n');
+            for (int x = 0; x < 8; x++)
+                drawn[x + (y << 3)] = code(board.getPiece(Position.of(x, y)));
+        }
+        frame.append(EDGE).append('\n').append(LETTERS).append('\n').append(EDGE).append('\n');
+        boardOnScreen = true;
+    }
+
+    /*
+     * la linea del nombre de la fila "y" es la "4 + 4*y" y la del color la siguiente, la celda de la columna "x"
+     * empieza en la columna "8 + 12*x" de la pantalla, contando desde 1
+     */
+    private void appendChanges(Board board) {
+        for (int square = 0; square < 64; square++) {
+            Position position = Position.of(square);
+            Piece piece = board.getPiece(position);
+            int code = code(piece);
+            if (code == drawn[square])
+                continue;
+            int column = 8 + 12 * position.getX();
+            appendName(moveCursor(4 + 4 * position.getY(), column), piece);
+            appendColor(moveCursor(5 + 4 * position.getY(), column), piece);
+            drawn[square] = code;
+        }
+        moveCursor(BOARD_LINES + 1, 1);
+    }
+
+    public void renderPiecesTaken(ArrayList<Piece> blackPiecesTaken, ArrayList<Piece> whitePiecesTaken) {
+        start();
+        appendBorder("||====================|", blackPiecesTaken, "|===========").append('\n');
+        appendNames("|| BLACK PIECES TAKEN |", blackPiecesTaken).append('\n');
+        appendBorder("||--------------------|", blackPiecesTaken, "|-----------").append('\n');
+        appendBorder("||--------------------|", whitePiecesTaken, "|-----------").append('\n');
+        appendNames("|| WHITE PIECES TAKEN |", whitePiecesTaken).append('\n');
+        appendBorder("||====================|", whitePiecesTaken, "|===========");
+        finish();
+    }
+
+    public void renderVoidLines(int n) {
+        start();
+        for (int i = 0; i < n; i++)
+            frame.append('\n');
+        finish();
+    }
+
+    public void renderLine(String text) {
+        start();
+        frame.append(text).append('\n');
+        finish();
+    }
+
+    private StringBuilder appendBorder(String title, ArrayList<Piece> pieces, String cell) {
+        frame.append(title);
+        for (int i = 0; i < pieces.size(); i++)
+            frame.append(cell);
+        return frame.append(pieces.isEmpty() ? "|" : "||");
+    }
+
+    private StringBuilder appendNames(String title, ArrayList<Piece> pieces) {
+        frame.append(title);
+        for (Piece piece : pieces)
+            appendName(frame.append('|'), piece);
+        return frame.append(pieces.isEmpty() ? "|" : "||");
+    }
+
+    /*
+     * celda de 11 caracteres con el nombre o el color de la pieza, o en blanco si no hay pieza
+     */
+    private static void appendName(StringBuilder builder, Piece piece) {
+        appendCell(builder, piece == null ? null : piece.getNameOfPiece().name());
+    }
+
+    private static void appendColor(StringBuilder builder, Piece piece) {
+        appendCell(builder, piece == null ? null : piece.getColorOfPiece().name());
+    }
+
+    private static void appendCell(StringBuilder builder, String text) {
+        int length = 0;
+        if (text != null) {
+            builder.append(' ').append(text);
+            length = text.length() + 1;
+        }
+        for (; length < 11; length++)
+            builder.append(' ');
+    }
+
+    private StringBuilder moveCursor(int line, int column) {
+        return frame.append("\033[").append(line).append(';').append(column).append('H');
+    }
+
+    private static int code(Piece piece) {
+        if (piece == null)
+            return EMPTY;
+        return piece.getColorOfPiece().ordinal() * 6 + piece.getNameOfPiece().ordinal();
+    }
+
+    /*
+     * fuera de un cuadro, cada metodo de dibujo arma y escribe su propio cuadro
+     */
+    private void start() {
+        if (!inFrame)
+            frame.setLength(0);
+    }
+
+    private void finish() {
+        if (!inFrame)
+            flush();
+    }
+
+    private void flush() {
+        int length = frame.length();
+        if (chars.length < length)
+            chars = new char[Math.max(length, chars.length * 2)];
+        frame.getChars(0, length, chars, 0);
+        output.write(chars, 0, length);
+        output.flush();
+    }
+
+    // GETTERS & SETTERS
+
+    public boolean isDifferential() {
+        return differential;
+    }
+}
@@ -8,6 +8,7 @@ public interface UserInterface {
     public abstract void playerTurnMessage();
     public abstract void checkMessage();
     public abstract void winnerMessage();
+    public abstract void drawMessage();
     public abstract void invalidPositionMessage();
     public abstract void invalidMovementMessage();
     public abstract void invalidInputMessage();
@@ -18,4 +19,5 @@ public interface UserInterface {
     public abstract void showPiecesTaken();
     public abstract void cleanScreen();
     public abstract void insertVoidLine(int n);
+    public abstract void showScreen();
 }
@@ -1,6 +1,5 @@
 package srs.userinterface;
 
-import java.util.ArrayList;
 import java.util.Scanner;
 
 import srs.Game;
@@ -9,18 +8,26 @@ import srs.pieces.Knight;
 import srs.pieces.Piece;
 import srs.pieces.Queen;
 import srs.pieces.Rook;
-import srs.util.Board;
 import srs.util.Position;
 import srs.util.enums.ColorEnum;
 
 public class UserInterfaceConsole implements UserInterface {
-    
+
+    private ConsoleRenderer renderer;
+
     public UserInterfaceConsole() {
+        this(false);
+    }
 
+    /*
+     * en modo diferencial el tablero se dibuja completo una sola vez y luego solo se actualizan las casillas que cambian
+     */
+    public UserInterfaceConsole(boolean differential) {
+        renderer = new ConsoleRenderer(System.out, differential);
     }
     
     public void playerTurnMessage() {
-        System.out.println("TURNO DE " + Game.getPlayer());
+        renderer.renderLine("TURNO DE " + Game.getPlayer());
     }
 
     public void checkMessage() {
@@ -28,10 +35,17 @@ public class UserInterfaceConsole implements UserInterface {
     }
 
     public void winnerMessage() {
-        System.out.println("||===||==========================||===||");
-        System.out.println("||   ||   HAY JAQUEMATE AL REY   ||   ||");
-        System.out.println("||   ||      GANADOR: " + Game.getOpponent() + "      ||   ||");
-        System.out.println("||===||==========================||===||");
+        renderer.renderLine("||===||==========================||===||");
+        renderer.renderLine("||   ||   HAY JAQUEMATE AL REY   ||   ||");
+        renderer.renderLine("||   ||      GANADOR: " + Game.getOpponent() + "      ||   ||");
+        renderer.renderLine("||===||==========================||===||");
+    }
+
+    public void drawMessage() {
+        renderer.renderLine("||===||==========================||===||");
+        renderer.renderLine("||   ||     TABLAS POR AHOGADO   ||   ||");
+        renderer.renderLine("||   ||  SIN MOVIMIENTOS: " + Game.getPlayer() + "  ||   ||");
+        renderer.renderLine("||===||==========================||===||");
     }
 
     public void invalidPositionMessage() {
@@ -49,13 +63,13 @@ public class UserInterfaceConsole implements UserInterface {
     public Position requestFirstPositionMessage() {
         System.out.print("Pieza a mover: ");
         String input = new Scanner(System.in).nextLine();
-        return new Position(input.charAt(0)-97, 7-(input.charAt(1)-49));
+        return Position.of(input.charAt(0)-97, 7-(input.charAt(1)-49));
     }
 
     public Position requestSecondPositionMessage() {
         System.out.print("Mover a casilla: ");
         String input = new Scanner(System.in).nextLine();
-        return new Position(input.charAt(0)-97, 7-(input.charAt(1)-49));
+        return Position.of(input.charAt(0)-97, 7-(input.charAt(1)-49));
     }
 
     public Piece requestToChoosePiece() {
@@ -78,96 +92,26 @@ public class UserInterfaceConsole implements UserInterface {
     }
 
     public void showBoard() {
-        Board board = Game.getBoard();
-        int row = 8;
-        for (int i = 0; i < 8; i++) {
-            if (i == 0) {
-                System.out.println("||===||===============================================================================================||===||");
-                System.out.println("||   ||     A     |     B     |     C     |     D     |     E     |     F     |     G     |     H     ||   ||");
-                System.out.println("||===||===============================================================================================||===||");
-            }
-            else
-                System.out.println("||---||-----------|-----------|-----------|-----------|-----------|-----------|-----------|-----------||---||");
-            System.out.print("||   |");
-            for (int j = 0; j < 8; j++) { 
-                System.out.print("|");
-                if (board.getPiece(new Position(j, i)) != null)
-                    System.out.printf(" %-10s", board.getPiece(new Position(j, i)).getNameOfPiece());
-                else
-                    System.out.printf("%11s", " ");
-            }
-            System.out.println("||   ||");
-            System.out.print("|| " + row +" |");
-            for (int j = 0; j < 8; j++) {
-                System.out.print("|");
-                if (board.getPiece(new Position(j, i)) != null)
-                    System.out.printf(" %-10s", board.getPiece(new Position(j, i)).getColorOfPiece());
-                else
-                    System.out.printf("%11s", " ");
-            }
-            System.out.println("|| " + row + " ||");
-            System.out.println("||   ||           |           |           |           |           |           |           |           ||   ||");
-            row--;
-        }
-        System.out.println("||===||===============================================================================================||===||");
-        System.out.println("||   ||     A     |     B     |     C     |     D     |     E     |     F     |     G     |     H     ||   ||");
-        System.out.println("||===||===============================================================================================||===||");
+        renderer.renderBoard(Game.getBoard());
     }
 
     public void showPiecesTaken() {
-        ArrayList<Piece> blackPiecesTaken = Game.getBlackPiecesTaken();
-        ArrayList<Piece> whitePiecesTaken = Game.getWhitePiecesTaken();
-        System.out.print("||====================|");
-        for (Piece piece : blackPiecesTaken)
-            System.out.print("|===========");
-        if (blackPiecesTaken.size() == 0)
-            System.out.print("|");
-        else
-            System.out.print("||");
-        System.out.print("\n|| BLACK PIECES TAKEN |");
-        for (Piece piece : blackPiecesTaken)
-            System.out.printf("| %-10s", piece.getNameOfPiece());
-        if (blackPiecesTaken.size() == 0)
-            System.out.print("|");
-        else
-            System.out.print("||");
-        System.out.print("\n||--------------------|");
-        for (Piece piece : blackPiecesTaken)
-            System.out.print("|-----------");
-        if (blackPiecesTaken.size() == 0)
-            System.out.print("|");
-        else
-            System.out.print("||");
-        System.out.print("\n||--------------------|");
-        for (Piece piece : whitePiecesTaken)
-            System.out.print("|-----------");
-        if (whitePiecesTaken.size() == 0)
-            System.out.print("|");
-        else
-            System.out.print("||");
-        System.out.print("\n|| WHITE PIECES TAKEN |");
-        for (Piece piece : whitePiecesTaken)
-            System.out.printf("| %-10s", piece.getNameOfPiece());
-        if (whitePiecesTaken.size() == 0)
-            System.out.print("|");
-        else
-            System.out.print("||");
-        System.out.print("\n||====================|");
-        for (Piece piece : whitePiecesTaken)
-            System.out.print("|===========");
-        if (whitePiecesTaken.size() == 0)
-            System.out.print("|");
-        else
-            System.out.print("||");
+        renderer.renderPiecesTaken(Game.getBlackPiecesTaken(), Game.getWhitePiecesTaken());
     }
 
+    /*
+     * limpiar la pantalla comienza el cuadro del turno, que se escribe de una vez con "showScreen"
+     */
     public void cleanScreen() {
-        System.out.print("\033[H\033[2J");
-        System.out.flush();
+        renderer.beginFrame();
+        renderer.clear();
     }
 
     public void insertVoidLine(int n) {
-        for(int i = 0; i < n; i++)
-            System.out.println("");
+        renderer.renderVoidLines(n);
+    }
+
+    public void showScreen() {
+        renderer.endFrame();
     }
 }
@@ -0,0 +1,182 @@
+package srs.userinterface;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import srs.GameSession;
+import srs.pieces.Piece;
+import srs.util.Fen;
+import srs.util.Position;
+import srs.util.enums.PieceEnum;
+import srs.util.factory.Factory;
+
+/*
+ * interfaz de usuario sobre una conexion de red, cada mensaje es una unica linea de texto para que un cliente
+ * pueda leer una respuesta por comando, las casillas se leen y escriben en notacion algebraica ("e2")
+ *
+ * las lineas se leen y escriben en ascii con buffers chicos, sin "InputStreamReader" ni "OutputStreamWriter" que reservan
+ * 8 kb cada uno, ya que un servidor mantiene miles de estas interfaces abiertas a la vez
+ */
+public class UserInterfaceNetwork implements UserInterface {
+
+    private static final int BUFFER_SIZE = 256;
+    private static final int MAX_LINE = 1024; // una linea mas larga se descarta, para que un cliente no pueda agotar la memoria
+
+    private GameSession session;
+    private InputStream in;
+    private OutputStream out;
+    private StringBuilder line;
+
+    public UserInterfaceNetwork(GameSession session, InputStream in, OutputStream out) {
+        this.session = session;
+        this.in = new BufferedInputStream(in, BUFFER_SIZE);
+        this.out = out;
+        line = new StringBuilder(64);
+    }
+
+    public void playerTurnMessage() {
+        send("turn " + session.getPlayer());
+    }
+
+    public void checkMessage() {
+        send("check " + session.getPlayer());
+    }
+
+    public void winnerMessage() {
+        send("checkmate " + session.getOpponent());
+    }
+
+    public void drawMessage() {
+        send("stalemate");
+    }
+
+    public void invalidPositionMessage() {
+        send("error invalid position");
+    }
+
+    public void invalidMovementMessage() {
+        send("error invalid movement");
+    }
+
+    public void invalidInputMessage() {
+        send("error invalid input");
+    }
+
+    public Position requestFirstPositionMessage() {
+        send("from?");
+        return parsePosition(readLine());
+    }
+
+    public Position requestSecondPositionMessage() {
+        send("to?");
+        return parsePosition(readLine());
+    }
+
+    public Piece requestToChoosePiece() {
+        send("promotion?");
+        String input = readLine();
+        PieceEnum name = PieceEnum.QUEEN;
+        switch (input == null ? "" : input.trim().toLowerCase()) {
+            case "b" -> name = PieceEnum.BISHOP;
+            case "n" -> name = PieceEnum.KNIGHT;
+            case "r" -> name = PieceEnum.ROOK;
+            default -> {
+                // VOID
+            }
+        }
+        return Factory.createPiece(name, session.getPlayer());
+    }
+
+    /*
+     * escribe el tablero como 8 filas de caracteres, de la fila 8 a la 1, con mayusculas para las blancas
+     * y un punto para las casillas vacias
+     */
+    public void showBoard() {
+        StringBuilder output = new StringBuilder(8 * 9);
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++)
+                output.append(symbol(session.getBoard().getPiece(x, y)));
+            output.append(y < 7 ? '/' : ' ');
+        }
+        send("board " + output.toString().trim());
+    }
+
+    public void showPiecesTaken() {
+        StringBuilder output = new StringBuilder("taken");
+        for (Piece piece : session.getWhitePiecesTaken())
+            output.append(' ').append(symbol(piece));
+        for (Piece piece : session.getBlackPiecesTaken())
+            output.append(' ').append(symbol(piece));
+        send(output.toString());
+    }
+
+    public void cleanScreen() {
+
+    }
+
+    public void insertVoidLine(int n) {
+
+    }
+
+    public void showScreen() {
+
+    }
+
+    /*
+     * escribe una linea y la envia de inmediato
+     */
+    public void send(String message) {
+        try {
+            out.write((message + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+     * retorna la siguiente linea sin el salto de linea, o null si el cliente cerro la conexion
+     */
+    public String readLine() {
+        try {
+            line.setLength(0);
+            int value;
+            while ((value = in.read()) != -1 && value != '\n')
+                if (value != '\r' && line.length() < MAX_LINE)
+                    line.append((char) value);
+            if (value == -1 && line.length() == 0)
+                return null;
+            return line.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+     * convierte una casilla en notacion algebraica a una posicion, lanzando "IndexOutOfBoundsException"
+     * si no es una casilla del tablero, igual que la interfaz de consola
+     */
+    public static Position parsePosition(String input) {
+        if (input == null || input.length() != 2 || input.charAt(0) < 'a' || input.charAt(0) > 'h' || input.charAt(1) < '1' || input.charAt(1) > '8')
+            throw new IndexOutOfBoundsException(String.valueOf(input));
+        return Position.of(input.charAt(0) - 'a', '8' - input.charAt(1));
+    }
+
+    private static char symbol(Piece piece) {
+        return piece == null ? '.' : Fen.symbol(piece);
+    }
+
+    // GETTERS & SETTERS
+
+    public GameSession getSession() {
+        return session;
+    }
+
+    public void setSession(GameSession session) {
+        this.session = session;
+    }
+}
@@ -0,0 +1,383 @@
+package srs.userinterface;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import srs.aistrategy.AIStrategy;
+import srs.aistrategy.SearchLimits;
+import srs.aistrategy.Strategy1;
+import srs.aistrategy.TranspositionTable;
+import srs.book.OpeningBook;
+import srs.pieces.Piece;
+import srs.pieces.Queen;
+import srs.tablebase.Tablebase;
+import srs.util.BitboardBoard;
+import srs.util.Fen;
+import srs.util.Move;
+import srs.util.MoveGenerator;
+import srs.util.Position;
+import srs.util.enums.ColorEnum;
+
+/*
+ * interfaz para programas que hablan el protocolo uci por la entrada y salida estandar, como gestores de torneos
+ * o herramientas de analisis, la busqueda corre en un hilo propio para poder seguir leyendo comandos y atender "stop"
+ *
+ * comandos: "uci", "isready", "setoption name Hash|Threads value <n>", "setoption name TablebasePath value <directorio>",
+ * "setoption name BookFile value <archivo>", "ucinewgame",
+ * "position startpos|fen <fen> [moves <movimientos>]", "go [depth <n>] [nodes <n>] [movetime <ms>]
+ * [wtime <ms>] [btime <ms>] [winc <ms>] [binc <ms>] [movestogo <n>] [infinite]", "stop" y "quit"
+ */
+public class UserInterfaceUCI implements UserInterface {
+
+    private static final int DEFAULT_HASH = 16;
+    private static final int MAX_HASH = 4096;
+    private static final int MAX_THREADS = 256;
+    private static final int DEFAULT_MOVES_TO_GO = 30; // sin "movestogo" se reparte el reloj como si faltaran estos movimientos
+    private static final long MOVE_OVERHEAD = 50L; // margen para no perder por tiempo por la demora de la comunicacion
+
+    private BufferedReader in;
+    private PrintStream out;
+    private BitboardBoard board;
+    private TranspositionTable transpositionTable;
+    private Strategy1 strategy;
+    private int threads;
+    private Thread searchThread;
+    private CountDownLatch stopSignal;
+
+    public UserInterfaceUCI(InputStream in, PrintStream out) {
+        this.in = new BufferedReader(new InputStreamReader(in));
+        this.out = out;
+        board = Fen.load(Fen.START_POSITION);
+        transpositionTable = new TranspositionTable(DEFAULT_HASH);
+        threads = 1;
+        strategy = new Strategy1(transpositionTable) {
+            protected void onIteration(int depth, int score, int bestMove) {
+                info(this, depth, score, bestMove);
+            }
+        };
+    }
+
+    public static void main(String[] args) throws IOException {
+        new UserInterfaceUCI(System.in, System.out).loop();
+    }
+
+    /*
+     * lee comandos hasta "quit" o hasta que se cierre la entrada
+     */
+    public void loop() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null)
+            if (!execute(line.trim()))
+                break;
+        stopSearch();
+    }
+
+    /*
+     * ejecuta un comando y retorna un booleano indicando si se debe seguir leyendo, los comandos desconocidos se ignoran
+     */
+    public boolean execute(String line) {
+        String[] tokens = line.split("\\s+");
+        switch (tokens[0]) {
+            case "uci" -> {
+                send("id name Chess-v1.0");
+                send("id author srs");
+                send("option name Hash type spin default " + DEFAULT_HASH + " min 1 max " + MAX_HASH);
+                send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                send("option name TablebasePath type string default <empty>");
+                send("option name BookFile type string default <empty>");
+                send("uciok");
+            }
+            case "isready" -> send("readyok");
+            case "setoption" -> setOption(tokens);
+            case "ucinewgame" -> {
+                stopSearch();
+                transpositionTable.clear();
+                strategy.getEvaluator().getPawnTable().clear();
+            }
+            case "position" -> {
+                stopSearch();
+                setPosition(tokens);
+            }
+            case "go" -> go(tokens);
+            case "stop" -> stopSearch();
+            case "quit" -> {
+                return false;
+            }
+            default -> {
+                // VOID
+            }
+        }
+        return true;
+    }
+
+    private void setOption(String[] tokens) {
+        String name = "";
+        String value = "";
+        for (int i = 1; i < tokens.length - 1; i++)
+            if (tokens[i].equals("name"))
+                name = tokens[i + 1];
+            else if (tokens[i].equals("value")) {
+                value = String.join(" ", Arrays.copyOfRange(tokens, i + 1, tokens.length)); // un directorio puede tener espacios
+                break;
+            }
+        try {
+            switch (name.toLowerCase()) {
+                case "hash" -> {
+                    stopSearch();
+                    transpositionTable.resize(Math.max(1, Math.min(Integer.parseInt(value), MAX_HASH)));
+                }
+                case "threads" -> threads = Math.max(1, Math.min(Integer.parseInt(value), MAX_THREADS));
+                case "tablebasepath" -> {
+                    stopSearch();
+                    setTablebase(value);
+                }
+                case "bookfile" -> {
+                    stopSearch();
+                    setBook(value);
+                }
+                default -> {
+                    // VOID
+                }
+            }
+        } catch (NumberFormatException e) {
+            send("info string valor no valido: " + value);
+        }
+    }
+
+    /*
+     * abre las tablas de finales del directorio, o las deja de usar si el valor es vacio
+     */
+    private void setTablebase(String directory) {
+        if (directory.isEmpty() || directory.equals("<empty>")) {
+            strategy.setTablebase(null);
+            return;
+        }
+        try {
+            Tablebase tablebase = new Tablebase(Paths.get(directory), Tablebase.DEFAULT_CACHE_BLOCKS);
+            strategy.setTablebase(tablebase);
+            send("info string " + tablebase.getTableCount() + " tablas de finales de hasta " + tablebase.getMaxPieces() + " piezas");
+        } catch (IOException | InvalidPathException e) {
+            send("info string no se pudieron abrir las tablas de finales: " + e.getMessage());
+        }
+    }
+
+    /*
+     * abre el libro de aperturas, o lo deja de usar si el valor es vacio
+     */
+    private void setBook(String file) {
+        if (file.isEmpty() || file.equals("<empty>")) {
+            strategy.setBook(null);
+            return;
+        }
+        try {
+            OpeningBook book = OpeningBook.open(Paths.get(file));
+            strategy.setBook(book);
+            send("info string libro de aperturas con " + book.getEntries() + " entradas");
+        } catch (IOException | InvalidPathException e) {
+            send("info string no se pudo abrir el libro de aperturas: " + e.getMessage());
+        }
+    }
+
+    /*
+     * "position startpos|fen <fen> [moves <movimientos>]", un movimiento ilegal descarta el resto de la lista
+     */
+    private void setPosition(String[] tokens) {
+        int index = 1;
+        String fen = Fen.START_POSITION;
+        if (tokens.length > 1 && tokens[1].equals("fen")) {
+            StringBuilder builder = new StringBuilder();
+            for (index = 2; index < tokens.length && !tokens[index].equals("moves"); index++)
+                builder.append(tokens[index]).append(' ');
+            fen = builder.toString();
+        }
+        else
+            index = 2;
+        board = Fen.load(fen);
+        if (index < tokens.length && tokens[index].equals("moves"))
+            for (index++; index < tokens.length; index++) {
+                int move = MoveGenerator.findMove(board, tokens[index]);
+                if (move == Move.NONE) {
+                    send("info string movimiento no valido: " + tokens[index]);
+                    break;
+                }
+                board.makeMove(move);
+            }
+    }
+
+    private void go(String[] tokens) {
+        stopSearch();
+        boolean infinite = false;
+        int depth = 0;
+        long nodes = 0L;
+        long millis = 0L;
+        long time = 0L;
+        long increment = 0L;
+        int movesToGo = DEFAULT_MOVES_TO_GO;
+        boolean white = board.getSideToMove().equals(ColorEnum.WHITE);
+        try {
+            for (int i = 1; i < tokens.length; i++)
+                switch (tokens[i]) {
+                    case "infinite" -> infinite = true;
+                    case "depth" -> depth = Integer.parseInt(tokens[++i]);
+                    case "nodes" -> nodes = Long.parseLong(tokens[++i]);
+                    case "movetime" -> millis = Long.parseLong(tokens[++i]);
+                    case "wtime", "btime" -> {
+                        long value = Long.parseLong(tokens[++i]);
+                        if (tokens[i - 1].equals(white ? "wtime" : "btime"))
+                            time = value;
+                    }
+                    case "winc", "binc" -> {
+                        long value = Long.parseLong(tokens[++i]);
+                        if (tokens[i - 1].equals(white ? "winc" : "binc"))
+                            increment = value;
+                    }
+                    case "movestogo" -> movesToGo = Math.max(1, Integer.parseInt(tokens[++i]));
+                    default -> {
+                        // VOID
+                    }
+                }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            send("info string comando go no valido");
+        }
+        if (millis == 0 && time > 0)
+            millis = Math.max(1L, Math.min(time / movesToGo + increment / 2, time - MOVE_OVERHEAD));
+        if (infinite || (depth == 0 && nodes == 0 && millis == 0))
+            depth = AIStrategy.MAX_PLY - 1;
+        search(new SearchLimits(depth, nodes, millis, threads), infinite);
+    }
+
+    /*
+     * lanza la busqueda en otro hilo sobre una copia del tablero, en modo "infinite" el resultado
+     * no se informa hasta recibir "stop", como pide el protocolo
+     */
+    private void search(SearchLimits limits, boolean infinite) {
+        BitboardBoard position = board.copy();
+        CountDownLatch signal = new CountDownLatch(1);
+        stopSignal = signal;
+        searchThread = new Thread(() -> {
+            int move = strategy.bestMove(position, limits);
+            if (move == Move.NONE) {
+                // "0000" solo si no hay movimientos legales, cualquier otra respuesta nula pierde la partida
+                int[] buffer = new int[MoveGenerator.MAX_MOVES];
+                if (MoveGenerator.generateMoves(position, buffer) > 0)
+                    move = buffer[0];
+            }
+            if (infinite) {
+                try {
+                    signal.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            send("info nodes " + strategy.getNodes() + " nps " + strategy.getNodesPerSecond() + " hashfull " + transpositionTable.hashfull() + " tbhits " + strategy.getTablebaseHits() + " time " + strategy.getElapsedMillis());
+            send("info string pawn hash hits " + strategy.getEvaluator().getPawnTable().getHitRate() / 10.0 + "%");
+            send("bestmove " + (move == Move.NONE ? "0000" : Move.toString(move)));
+        }, "uci-search");
+        searchThread.start();
+    }
+
+    /*
+     * detiene la busqueda en curso, si la hay, y espera a que informe su resultado, se repite el pedido
+     * por si la busqueda todavia no habia empezado cuando llego el primero
+     */
+    private void stopSearch() {
+        if (searchThread == null)
+            return;
+        stopSignal.countDown();
+        try {
+            while (searchThread.isAlive()) {
+                strategy.stop();
+                searchThread.join(10L);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+    }
+
+    private void info(AIStrategy search, int depth, int score, int bestMove) {
+        String value;
+        if (Math.abs(score) >= AIStrategy.MATE - AIStrategy.MAX_PLY) {
+            int moves = (AIStrategy.MATE - Math.abs(score) + 1) / 2;
+            value = "mate " + (score > 0 ? moves : -moves);
+        }
+        else
+            value = "cp " + score;
+        send("info depth " + depth + " score " + value + " nodes " + search.getNodes() + " nps " + search.getNodesPerSecond()
+                + " hashfull " + transpositionTable.hashfull() + " time " + search.getElapsedMillis() + " pv " + Move.toString(bestMove));
+    }
+
+    private synchronized void send(String line) {
+        out.println(line);
+        out.flush();
+    }
+
+    // la interfaz uci no es interactiva, los mensajes de la partida no se usan
+
+    public void playerTurnMessage() {
+
+    }
+
+    public void checkMessage() {
+
+    }
+
+    public void winnerMessage() {
+
+    }
+
+    public void drawMessage() {
+
+    }
+
+    public void invalidPositionMessage() {
+
+    }
+
+    public void invalidMovementMessage() {
+
+    }
+
+    public void invalidInputMessage() {
+
+    }
+
+    public Position requestFirstPositionMessage() {
+        return null;
+    }
+
+    public Position requestSecondPositionMessage() {
+        return null;
+    }
+
+    public Piece requestToChoosePiece() {
+        return new Queen(board.getSideToMove());
+    }
+
+    public void showBoard() {
+
+    }
+
+    public void showPiecesTaken() {
+
+    }
+
+    public void cleanScreen() {
+
+    }
+
+    public void insertVoidLine(int n) {
+
+    }
+
+    public void showScreen() {
+
+    }
+}
@@ -30,6 +30,10 @@ public class UserInterfaceWindows implements UserInterface {
         
     }
 
+    public void drawMessage() {
+
+    }
+
     public void invalidPositionMessage() {
         
     }
@@ -43,11 +47,11 @@ public class UserInterfaceWindows implements UserInterface {
     }
 
     public Position requestFirstPositionMessage() {
-        return new Position(0, 0);
+        return Position.of(0, 0);
     }
 
     public Position requestSecondPositionMessage() {
-        return new Position(0, 0);
+        return Position.of(0, 0);
     }
 
     public Piece requestToChoosePiece() {
@@ -69,4 +73,8 @@ public class UserInterfaceWindows implements UserInterface {
     public void insertVoidLine(int n) {
         
     }
+
+    public void showScreen() {
+
+    }
 }
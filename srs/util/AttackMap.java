@@ -0,0 +1,91 @@
+package srs.util;
+
+import java.util.Arrays;
+
+import srs.pieces.Piece;
+import srs.util.enums.ColorEnum;
+import srs.util.enums.PieceEnum;
+
+public class AttackMap {
+
+    private BitboardBoard board;
+    private long[] attacksFrom; // casillas atacadas por la pieza que ocupa cada casilla, 0 si la casilla esta vacia
+    private long[] attacked; // union de los ataques de todas las piezas de cada color, indexada por "color.ordinal()"
+
+    public AttackMap(BitboardBoard board) {
+        this.board = board;
+        attacksFrom = new long[BitboardBoard.SQUARES];
+        attacked = new long[BitboardBoard.COLORS];
+    }
+
+    /*
+     * se le pasa una mascara con las casillas que cambiaron de contenido y recalcula unicamente los ataques
+     * de esas casillas y de las piezas de trayectoria larga cuyos ataques pasaban por alguna de ellas,
+     * ya que son las unicas que pueden haber quedado bloqueadas o desbloqueadas
+     */
+    public void update(long changed) {
+        long occupied = board.getOccupied();
+        long sliders = sliders(ColorEnum.BLACK) | sliders(ColorEnum.WHITE);
+        for (long iterator = sliders & ~changed; iterator != 0; iterator &= iterator-1) {
+            int square = Long.numberOfTrailingZeros(iterator);
+            if ((attacksFrom[square] & changed) != 0)
+                attacksFrom[square] = attacksOf(square, occupied);
+        }
+        for (long iterator = changed; iterator != 0; iterator &= iterator-1) {
+            int square = Long.numberOfTrailingZeros(iterator);
+            attacksFrom[square] = attacksOf(square, occupied);
+        }
+        attacked[ColorEnum.BLACK.ordinal()] = union(ColorEnum.BLACK);
+        attacked[ColorEnum.WHITE.ordinal()] = union(ColorEnum.WHITE);
+    }
+
+    /*
+     * deja el mapa como el de un tablero vacio
+     */
+    public void clear() {
+        Arrays.fill(attacksFrom, 0L);
+        Arrays.fill(attacked, 0L);
+    }
+
+    /*
+     * retorna un booleano indicando si la casilla se encuentra atacada por alguna pieza del color pasado por parametro
+     */
+    public boolean isAttacked(ColorEnum color, int square) {
+        return (attacked[color.ordinal()] & (1L << square)) != 0;
+    }
+
+    /*
+     * retorna un booleano indicando si alguna de las casillas de la mascara se encuentra atacada por el color pasado por parametro
+     */
+    public boolean isAttacked(ColorEnum color, long squares) {
+        return (attacked[color.ordinal()] & squares) != 0;
+    }
+
+    private long attacksOf(int square, long occupied) {
+        Piece piece = board.getPiece(square);
+        if (piece == null)
+            return 0L;
+        return AttackTables.attacks(piece.getNameOfPiece(), piece.getColorOfPiece(), square, occupied);
+    }
+
+    private long union(ColorEnum color) {
+        long output = 0L;
+        for (long iterator = board.getPieces(color); iterator != 0; iterator &= iterator-1)
+            output |= attacksFrom[Long.numberOfTrailingZeros(iterator)];
+        return output;
+    }
+
+    private long sliders(ColorEnum color) {
+        return board.getPieces(color, PieceEnum.ROOK) | board.getPieces(color, PieceEnum.BISHOP) | board.getPieces(color, PieceEnum.QUEEN);
+    }
+
+    // GETTERS & SETTERS
+
+    public long getAttacked(ColorEnum color) {
+        return attacked[color.ordinal()];
+    }
+
+    public long getAttacksFrom(int square) {
+        return attacksFrom[square];
+    }
+}
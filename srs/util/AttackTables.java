@@ -0,0 +1,257 @@
+package srs.util;
+
+import srs.util.enums.ColorEnum;
+import srs.util.enums.PieceEnum;
+
+public class AttackTables {
+
+    private static AttackTables instance;
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64]; // indexada por "color.ordinal()"
+    private static final long[][] BETWEEN = new long[64][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = {
+        0x2080002080400010L, 0x00C0002001401000L, 0x2100110008402002L, 0x0880080081041000L,
+        0x0200020020041008L, 0x2300040008010012L, 0x0C00283004008201L, 0x0180010000407A80L,
+        0x0168800080400020L, 0x0010400040201000L, 0x1001002001001048L, 0x1001002408100100L,
+        0x0801000408010012L, 0x4001000209000400L, 0x08A20004C8020001L, 0x2002801145002280L,
+        0x0080860021004200L, 0x001000C009402002L, 0x00B0002004002800L, 0x100A808010020800L,
+        0x9400808004000800L, 0x0090808004000200L, 0x0000040010810208L, 0x2000020000448534L,
+        0x4104400480008033L, 0x0000810100204000L, 0x0440430900200010L, 0x4600240900100100L,
+        0x0804080100110004L, 0x0001000300080400L, 0x0004084400011002L, 0x0023040200008041L,
+        0x0580050043002080L, 0x0400804002802008L, 0x0001002001004010L, 0x0080200A02001040L,
+        0x600D480280802400L, 0x400B800201800C00L, 0x2408211004004208L, 0x0200211082000844L,
+        0x0020804010208000L, 0x5030004020104000L, 0xA042084080220010L, 0x4088080010008080L,
+        0x5002080100110004L, 0x2012002010040400L, 0x0040318210440008L, 0x0120941040820001L,
+        0x1000800100402100L, 0x0040002010004840L, 0x8108450020001900L, 0x0200204008120200L,
+        0x0080800C00180180L, 0x0885000400420900L, 0x230802011008C400L, 0x3801740891432200L,
+        0x0A00250212024082L, 0x0000882040001105L, 0x0042102082000A42L, 0xC401210810000501L,
+        0x0241001002480005L, 0x0081000400880241L, 0x0000009008024124L, 0x0048122980410402L
+    };
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = {
+        0x1862221006220044L, 0x2104A14202020060L, 0x2804081220444001L, 0x2102408900010001L,
+        0x0002021000040002L, 0x08C3100805004300L, 0x1084040124920050L, 0x8900440043382010L,
+        0x2401410802140040L, 0x0901200454208020L, 0x0000090216020541L, 0x1283844040800804L,
+        0x0521840420000803L, 0x0800010402400C40L, 0x0000408E10100404L, 0x0009810048420800L,
+        0x2004211004286808L, 0x13080A1001380080L, 0x0008801004220020L, 0x0024000802480800L,
+        0x1461001190400401L, 0x0020400200500440L, 0x0003000409019000L, 0x000C20820D011802L,
+        0x000804002164100CL, 0x00048400A0011404L, 0x5018110308044100L, 0x0048A00804010020L,
+        0x0007840000802000L, 0x8808A20075004220L, 0x8014040000822100L, 0x110C03000E251101L,
+        0x0081094820202010L, 0x0008041000044100L, 0x00C1202808940800L, 0x8108100821040400L,
+        0x1240010010010041L, 0x0810004080011000L, 0x00A20C0401804A00L, 0x40014C0020050500L,
+        0x5805082012042480L, 0x2004022144031000L, 0x2082002024204808L, 0x0800004200800800L,
+        0x0410020204100A02L, 0x80C1204080804101L, 0x0010104E01800042L, 0x000800810C400208L,
+        0x100080B008201210L, 0x8000440605112101L, 0x000202008C440040L, 0x9004002210442200L,
+        0x2032014088222045L, 0x0C00202222C20000L, 0x0140040820A50100L, 0x0222104C29024018L,
+        0x0200110121202004L, 0x0800104200B00802L, 0x0000401424020801L, 0x4000000004208840L,
+        0x0802E00040104100L, 0x03000020A0424080L, 0x0011C00408188121L, 0x0848020822040013L
+    };
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    private static final int[][] KNIGHT_JUMPS = {{2, 1}, {-2, 1}, {2, -1}, {-2, -1}, {1, 2}, {-1, 2}, {1, -2}, {-1, -2}};
+    private static final int[][] KING_STEPS = {{0, 1}, {1, 1}, {-1, 1}, {0, -1}, {1, -1}, {-1, -1}, {1, 0}, {-1, 0}};
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int x = square & 7;
+            int y = square >>> 3;
+            KNIGHT_ATTACKS[square] = stepAttacks(x, y, KNIGHT_JUMPS);
+            KING_ATTACKS[square] = stepAttacks(x, y, KING_STEPS);
+            PAWN_ATTACKS[ColorEnum.BLACK.ordinal()][square] = stepAttacks(x, y, new int[][] {{1, 1}, {-1, 1}}); // las negras avanzan hacia +Y
+            PAWN_ATTACKS[ColorEnum.WHITE.ordinal()][square] = stepAttacks(x, y, new int[][] {{1, -1}, {-1, -1}}); // las blancas avanzan hacia -Y
+        }
+        initializeBetween();
+        for (int square = 0; square < 64; square++) {
+            initializeMagic(square, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_TABLE);
+            initializeMagic(square, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_TABLE);
+        }
+    }
+
+    private AttackTables() {
+
+    }
+
+    public static AttackTables getInstance() {
+        if (instance == null)
+            instance = new AttackTables();
+        return instance;
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    public static long pawnAttacks(ColorEnum color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK_TABLE[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP_TABLE[square][(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /*
+     * retorna las casillas que se encuentran estrictamente entre las 2 casillas pasadas por parametro,
+     * o una mascara vacia si no comparten fila, columna o diagonal
+     */
+    public static long between(int squareOne, int squareTwo) {
+        return BETWEEN[squareOne][squareTwo];
+    }
+
+    /*
+     * retorna las casillas que ataca una pieza del tipo y color indicados desde la casilla pasada por parametro,
+     * teniendo en cuenta las piezas que bloquean la trayectoria segun la ocupacion del tablero
+     */
+    public static long attacks(PieceEnum name, ColorEnum color, int square, long occupied) {
+        switch (name) {
+            case PAWN -> {
+                return pawnAttacks(color, square);
+            }
+            case KNIGHT -> {
+                return knightAttacks(square);
+            }
+            case KING -> {
+                return kingAttacks(square);
+            }
+            case ROOK -> {
+                return rookAttacks(square, occupied);
+            }
+            case BISHOP -> {
+                return bishopAttacks(square, occupied);
+            }
+            case QUEEN -> {
+                return queenAttacks(square, occupied);
+            }
+            default -> {
+                return 0L;
+            }
+        }
+    }
+
+    /*
+     * retorna las casillas vacias a las que puede avanzar un peon, incluyendo el avance doble
+     * en caso de no haber sido movido y de que la casilla intermedia se encuentre libre
+     */
+    public static long pawnPushes(ColorEnum color, int square, long occupied, boolean wasMoved) {
+        int step = color.equals(ColorEnum.BLACK) ? 8 : -8;
+        int next = square + step;
+        if (next < 0 || next > 63 || (occupied & (1L << next)) != 0)
+            return 0L;
+        long output = 1L << next;
+        int nextTwo = next + step;
+        if (!wasMoved && nextTwo >= 0 && nextTwo <= 63 && (occupied & (1L << nextTwo)) == 0)
+            output |= 1L << nextTwo;
+        return output;
+    }
+
+    private static long stepAttacks(int x, int y, int[][] steps) {
+        long output = 0L;
+        for (int[] step : steps) {
+            int xTwo = x + step[0];
+            int yTwo = y + step[1];
+            if (xTwo >= 0 && xTwo <= 7 && yTwo >= 0 && yTwo <= 7)
+                output |= 1L << (xTwo + (yTwo << 3));
+        }
+        return output;
+    }
+
+    /*
+     * recorre las trayectorias casilla por casilla hasta encontrar una pieza o el borde del tablero,
+     * solo se usa para construir las tablas, nunca durante la partida
+     */
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long output = 0L;
+        for (int[] direction : directions) {
+            int x = (square & 7) + direction[0];
+            int y = (square >>> 3) + direction[1];
+            while (x >= 0 && x <= 7 && y >= 0 && y <= 7) {
+                long mask = 1L << (x + (y << 3));
+                output |= mask;
+                if ((occupied & mask) != 0)
+                    break;
+                x += direction[0];
+                y += direction[1];
+            }
+        }
+        return output;
+    }
+
+    /*
+     * mascara de ocupacion relevante: las casillas de la trayectoria sin contar la ultima antes del borde,
+     * ya que una pieza en el borde no cambia el resultado del ataque
+     */
+    private static long relevantMask(int square, int[][] directions) {
+        long output = 0L;
+        for (int[] direction : directions) {
+            int x = (square & 7) + direction[0];
+            int y = (square >>> 3) + direction[1];
+            while (x + direction[0] >= 0 && x + direction[0] <= 7 && y + direction[1] >= 0 && y + direction[1] <= 7) {
+                output |= 1L << (x + (y << 3));
+                x += direction[0];
+                y += direction[1];
+            }
+        }
+        return output;
+    }
+
+    private static void initializeBetween() {
+        int[][] directions = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+        for (int square = 0; square < 64; square++)
+            for (int[] direction : directions) {
+                long path = 0L;
+                int x = (square & 7) + direction[0];
+                int y = (square >>> 3) + direction[1];
+                while (x >= 0 && x <= 7 && y >= 0 && y <= 7) {
+                    int squareTwo = x + (y << 3);
+                    BETWEEN[square][squareTwo] = path;
+                    path |= 1L << squareTwo;
+                    x += direction[0];
+                    y += direction[1];
+                }
+            }
+    }
+
+    /*
+     * carga la tabla de ataques de la casilla, donde el numero magico lleva cada subconjunto de la mascara relevante
+     * a un indice de la tabla, los numeros fueron buscados por prueba y error y se verifica que no haya colisiones destructivas
+     */
+    private static void initializeMagic(int square, int[][] directions, long[] masks, long[] magics, int[] shifts, long[][] table) {
+        long mask = relevantMask(square, directions);
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+        boolean[] used = new boolean[size];
+        masks[square] = mask;
+        shifts[square] = 64 - bits;
+        table[square] = new long[size];
+        long subset = 0L;
+        for (int i = 0; i < size; i++) { // recorro todos los subconjuntos de la mascara
+            long attacks = slidingAttacks(square, subset, directions);
+            int index = (int) ((subset * magics[square]) >>> shifts[square]);
+            if (used[index] && table[square][index] != attacks)
+                throw new IllegalStateException("numero magico invalido para la casilla " + square);
+            used[index] = true;
+            table[square][index] = attacks;
+            subset = (subset - mask) & mask;
+        }
+    }
+}
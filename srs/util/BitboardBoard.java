@@ -0,0 +1,585 @@
+package srs.util;
+
+import java.util.Arrays;
+
+import srs.pieces.Pawn;
+import srs.pieces.Piece;
+import srs.util.enums.ColorEnum;
+import srs.util.enums.PieceEnum;
+import srs.util.factory.Factory;
+
+public class BitboardBoard extends Board {
+
+    /*
+     * una casilla se indexa como "x + 8*y", por lo que la casilla 0 es la esquina superior izquierda (a8)
+     * y la casilla 63 la esquina inferior derecha (h1), el bit "n" de cada mascara representa la casilla "n"
+     */
+    public static final int SQUARES = 64;
+    public static final int PIECE_TYPES = PieceEnum.values().length;
+    public static final int COLORS = ColorEnum.values().length;
+
+    public static final int WHITE_KING_SQUARE = 60; // e1
+    public static final int BLACK_KING_SQUARE = 4; // e8
+
+    // bits de la mascara de enroques disponibles
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+    private static final long CASTLING_SQUARES = (1L << 0) | (1L << 4) | (1L << 7) | (1L << 56) | (1L << 60) | (1L << 63); // casillas iniciales de reyes y torres
+
+    private long[] pieces; // una mascara por cada combinacion de color y tipo de pieza, indexada por "index(color, name)"
+    private long[] colors; // una mascara con todas las piezas de cada color, indexada por "color.ordinal()"
+    private long occupied;
+    private AttackMap attackMap;
+    private ColorEnum sideToMove;
+    private int enPassantSquare; // casilla que se puede capturar al paso, -1 si no hay
+    private int castlingRights; // se deduce de "Piece.wasMoved" de reyes y torres, se guarda para mantener la clave
+    private long key; // clave zobrist de la posicion, actualizada con xor en cada cambio
+    private long pawnKey; // clave zobrist de solo los peones, para la tabla de estructura de peones
+    private int halfmoveClock; // medios movimientos desde la ultima captura o movimiento de peon, para la regla de 50 movimientos
+    private int fullmoveNumber; // comienza en 1 y aumenta despues de cada movimiento de las negras
+    private int midgameScore; // suma de "PieceSquareTables" de todas las piezas, actualizada en cada cambio igual que la clave
+    private int endgameScore;
+    private int phase;
+
+    // pila para deshacer los movimientos realizados con "makeMove", indexada por "ply"
+    private int ply;
+    private int[] moves;
+    private Piece[] movedPieces;
+    private Piece[] capturedPieces;
+    private int[] states; // bits 0-6 captura al paso + 1, bit 7 "wasMoved" de la pieza movida, bits 8-11 enroques, bits 12 en adelante "halfmoveClock"
+    private long[] keys; // clave de la posicion anterior a cada movimiento
+    private Piece[] promotions; // una pieza por color y tipo que se reutiliza en cada promocion, indexada por "index(color, name)"
+    private long[] history; // claves de las posiciones previas a la pila que recibe una copia, para detectar repeticiones
+
+    public BitboardBoard() {
+        super();
+        pieces = new long[COLORS * PIECE_TYPES];
+        colors = new long[COLORS];
+        occupied = 0L;
+        attackMap = new AttackMap(this);
+        sideToMove = ColorEnum.WHITE;
+        enPassantSquare = -1;
+        castlingRights = 0;
+        key = 0L;
+        pawnKey = 0L;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        ply = 0;
+        moves = new int[256];
+        movedPieces = new Piece[256];
+        capturedPieces = new Piece[256];
+        states = new int[256];
+        keys = new long[256];
+        history = new long[0];
+        promotions = new Piece[COLORS * PIECE_TYPES];
+    }
+
+    @Override
+    public void movePiece(Position positionOne, Position positionTwo) {
+        movePiece(square(positionOne), square(positionTwo));
+    }
+
+    @Override
+    public void undoMovement(Position positionOne, Position positionTwo, boolean wasMovedOld) {
+        undoMovement(square(positionOne), square(positionTwo), wasMovedOld);
+    }
+
+    @Override
+    public void setPiece(Piece piece, Position position) {
+        setPiece(piece, position.getX(), position.getY());
+    }
+
+    @Override
+    public void setPiece(Piece piece, int x, int y) {
+        Piece old = getPiece(x, y);
+        if (old != null)
+            removeFromBitboards(old, square(x, y));
+        super.setPiece(piece, x, y);
+        if (piece != null)
+            addToBitboards(piece, square(x, y));
+        attackMap.update(1L << square(x, y));
+        if (((1L << square(x, y)) & CASTLING_SQUARES) != 0)
+            refreshCastlingRights();
+    }
+
+    /*
+     * variantes de los metodos anteriores que trabajan directamente con el indice de la casilla,
+     * para que los recorridos internos no necesiten crear instancias de "Position"
+     */
+    public void movePiece(int squareOne, int squareTwo) {
+        Piece piece = getPiece(squareOne);
+        Piece captured = getPiece(squareTwo);
+        if (captured != null)
+            removeFromBitboards(captured, squareTwo);
+        super.setPiece(piece, squareTwo & 7, squareTwo >>> 3);
+        super.setPiece(null, squareOne & 7, squareOne >>> 3);
+        if (!piece.getWasMoved())
+            piece.setWasMoved(true);
+        moveInBitboards(piece, squareOne, squareTwo);
+        attackMap.update((1L << squareOne) | (1L << squareTwo));
+        if ((((1L << squareOne) | (1L << squareTwo)) & CASTLING_SQUARES) != 0)
+            refreshCastlingRights();
+    }
+
+    public void undoMovement(int squareOne, int squareTwo, boolean wasMovedOld) {
+        Piece piece = getPiece(squareOne);
+        super.setPiece(piece, squareTwo & 7, squareTwo >>> 3);
+        super.setPiece(null, squareOne & 7, squareOne >>> 3);
+        piece.setWasMoved(wasMovedOld);
+        moveInBitboards(piece, squareOne, squareTwo);
+        attackMap.update((1L << squareOne) | (1L << squareTwo));
+        if ((((1L << squareOne) | (1L << squareTwo)) & CASTLING_SQUARES) != 0)
+            refreshCastlingRights();
+    }
+
+    public Piece getPiece(int square) {
+        return getPiece(square & 7, square >>> 3);
+    }
+
+    public void setPiece(Piece piece, int square) {
+        setPiece(piece, square & 7, square >>> 3);
+    }
+
+    /*
+     * realiza el movimiento empaquetado que se pasa por parametro, incluyendo la torre del enroque,
+     * la captura al paso y la promocion, y guarda lo necesario para que "unmakeMove" lo pueda deshacer,
+     * se da por supuesto que el movimiento fue generado por "MoveGenerator" para esta posicion
+     */
+    public void makeMove(int move) {
+        if (ply == states.length) {
+            moves = Arrays.copyOf(moves, ply * 2);
+            movedPieces = Arrays.copyOf(movedPieces, ply * 2);
+            capturedPieces = Arrays.copyOf(capturedPieces, ply * 2);
+            states = Arrays.copyOf(states, ply * 2);
+            keys = Arrays.copyOf(keys, ply * 2);
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        Piece piece = getPiece(from);
+        Piece captured;
+        keys[ply] = key;
+        if (Move.isEnPassant(move)) {
+            int capturedSquare = enPassantCapturedSquare(to);
+            captured = getPiece(capturedSquare);
+            setPiece(null, capturedSquare);
+        }
+        else
+            captured = getPiece(to);
+        moves[ply] = move;
+        movedPieces[ply] = piece;
+        capturedPieces[ply] = captured;
+        states[ply] = (enPassantSquare + 1) | (piece.getWasMoved() ? 1 << 7 : 0) | (castlingRights << 8) | (halfmoveClock << 12);
+        ply++;
+        if (captured != null || piece.getNameOfPiece().equals(PieceEnum.PAWN))
+            halfmoveClock = 0;
+        else
+            halfmoveClock++;
+        if (sideToMove.equals(ColorEnum.BLACK))
+            fullmoveNumber++;
+        movePiece(from, to);
+        if (Move.isCastling(move))
+            movePiece(castlingRookFrom(to), castlingRookTo(to));
+        if (Move.isPromotion(move)) {
+            setPiece(promotedPiece(Move.pieceEnum(Move.promotion(move)), piece.getColorOfPiece()), to);
+        }
+        if (Move.isDoublePush(move))
+            setEnPassantSquare((from + to) >>> 1);
+        else
+            setEnPassantSquare(-1);
+        setSideToMove(opponent(sideToMove));
+    }
+
+    /*
+     * pieza que aparece al promocionar, la misma instancia puede ocupar varias casillas porque su unico estado,
+     * "wasMoved", siempre es verdadero, asi realizar y deshacer promociones no crea objetos
+     */
+    private Piece promotedPiece(PieceEnum name, ColorEnum color) {
+        int index = index(color, name);
+        if (promotions[index] == null) {
+            promotions[index] = Factory.createPiece(name, color);
+            promotions[index].setWasMoved(true);
+        }
+        return promotions[index];
+    }
+
+    /*
+     * deshace el ultimo movimiento realizado con "makeMove", que debe ser el que se pasa por parametro
+     */
+    public void unmakeMove(int move) {
+        ply--;
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int state = states[ply];
+        setSideToMove(opponent(sideToMove));
+        halfmoveClock = state >>> 12;
+        if (sideToMove.equals(ColorEnum.BLACK))
+            fullmoveNumber--;
+        if (Move.isPromotion(move))
+            setPiece(movedPieces[ply], to);
+        if (Move.isCastling(move))
+            undoMovement(castlingRookTo(to), castlingRookFrom(to), false);
+        undoMovement(to, from, (state & (1 << 7)) != 0);
+        if (capturedPieces[ply] != null) {
+            if (Move.isEnPassant(move))
+                setPiece(capturedPieces[ply], enPassantCapturedSquare(to));
+            else
+                setPiece(capturedPieces[ply], to);
+        }
+        movedPieces[ply] = null;
+        capturedPieces[ply] = null;
+        enPassantSquare = (state & 0x7F) - 1;
+        castlingRights = (state >>> 8) & 0xF;
+        key = keys[ply];
+    }
+
+    /*
+     * deshace el ultimo movimiento realizado con "makeMove" y lo retorna, o retorna "Move.NONE" si la pila esta vacia
+     */
+    public int unmakeLastMove() {
+        if (ply == 0)
+            return Move.NONE;
+        int move = moves[ply - 1];
+        unmakeMove(move);
+        return move;
+    }
+
+    /*
+     * retorna un booleano indicando si la posicion actual ya se dio antes con el mismo jugador con el turno,
+     * buscando solo desde la ultima captura o movimiento de peon, dentro de los movimientos de la pila
+     * y de las posiciones anteriores que conserva una copia
+     */
+    public boolean isRepetition() {
+        for (int i = ply - 2; i >= Math.max(ply - halfmoveClock, -history.length); i -= 2)
+            if ((i >= 0 ? keys[i] : history[history.length + i]) == key)
+                return true;
+        return false;
+    }
+
+    /*
+     * retorna un booleano indicando si el color todavia puede enrocar hacia el lado indicado, lo cual se deduce
+     * de que ni el rey ni la torre de esa esquina hayan sido movidos, sin analizar casillas atacadas ni obstrucciones
+     */
+    public boolean canCastle(ColorEnum color, boolean kingSide) {
+        int kingSquare = color.equals(ColorEnum.WHITE) ? WHITE_KING_SQUARE : BLACK_KING_SQUARE;
+        int rookSquare = kingSide ? kingSquare + 3 : kingSquare - 4;
+        Piece king = getPiece(kingSquare);
+        Piece rook = getPiece(rookSquare);
+        return king != null && rook != null
+            && king.getNameOfPiece().equals(PieceEnum.KING) && king.getColorOfPiece().equals(color) && !king.getWasMoved()
+            && rook.getNameOfPiece().equals(PieceEnum.ROOK) && rook.getColorOfPiece().equals(color) && !rook.getWasMoved();
+    }
+
+    /*
+     * crea una copia independiente del tablero, con piezas nuevas, para que otro hilo pueda realizar y deshacer
+     * movimientos sobre ella sin afectar al original, la pila de "makeMove" de la copia comienza vacia
+     * pero conserva las claves de las posiciones desde la ultima captura o movimiento de peon para detectar repeticiones
+     */
+    public BitboardBoard copy() {
+        BitboardBoard output = new BitboardBoard();
+        for (long iterator = occupied; iterator != 0; iterator &= iterator-1) {
+            int square = Long.numberOfTrailingZeros(iterator);
+            Piece piece = getPiece(square);
+            Piece copy = Factory.createPiece(piece.getNameOfPiece(), piece.getColorOfPiece());
+            copy.setWasMoved(piece.getWasMoved());
+            output.setPiece(copy, square);
+        }
+        output.refreshCastlingRights();
+        output.setSideToMove(sideToMove);
+        output.setEnPassantSquare(enPassantSquare);
+        output.halfmoveClock = halfmoveClock;
+        output.fullmoveNumber = fullmoveNumber;
+        int count = Math.min(halfmoveClock, history.length + ply);
+        output.history = new long[count];
+        for (int i = 0; i < count; i++) {
+            int index = ply - count + i;
+            output.history[i] = index >= 0 ? keys[index] : history[history.length + index];
+        }
+        return output;
+    }
+
+    /*
+     * vacia el tablero de una sola vez y lo deja con el turno de las blancas, sin enroques ni captura al paso,
+     * la pila de "makeMove" tambien se vacia
+     */
+    public void clear() {
+        for (long iterator = occupied; iterator != 0; iterator &= iterator-1) {
+            int square = Long.numberOfTrailingZeros(iterator);
+            super.setPiece(null, square & 7, square >>> 3);
+        }
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(colors, 0L);
+        occupied = 0L;
+        sideToMove = ColorEnum.WHITE;
+        enPassantSquare = -1;
+        castlingRights = 0;
+        key = 0L;
+        pawnKey = 0L;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        Arrays.fill(moves, 0, ply, Move.NONE);
+        Arrays.fill(movedPieces, 0, ply, null);
+        Arrays.fill(capturedPieces, 0, ply, null);
+        ply = 0;
+        history = new long[0];
+        attackMap.clear();
+    }
+
+    /*
+     * coloca una pieza en una casilla vacia sin recalcular ataques ni enroques, para cargar una posicion completa
+     * pieza por pieza, al terminar se debe llamar a "refresh"
+     */
+    void placePiece(Piece piece, int square) {
+        super.setPiece(piece, square & 7, square >>> 3);
+        addToBitboards(piece, square);
+    }
+
+    /*
+     * recalcula todo el mapa de ataques y los enroques disponibles, despues de cargar piezas con "placePiece"
+     */
+    void refresh() {
+        attackMap.update(-1L);
+        refreshCastlingRights();
+    }
+
+    /*
+     * se le pasa la casilla de destino del rey en el enroque y retorna donde se encuentra y hacia donde va la torre
+     */
+    public static int castlingRookFrom(int kingTo) {
+        return (kingTo & 7) == 6 ? kingTo + 1 : kingTo - 2;
+    }
+
+    public static int castlingRookTo(int kingTo) {
+        return (kingTo & 7) == 6 ? kingTo - 1 : kingTo + 1;
+    }
+
+    private int enPassantCapturedSquare(int to) {
+        return sideToMove.equals(ColorEnum.WHITE) ? to + 8 : to - 8;
+    }
+
+    public static ColorEnum opponent(ColorEnum color) {
+        if (color.equals(ColorEnum.BLACK))
+            return ColorEnum.WHITE;
+        return ColorEnum.BLACK;
+    }
+
+    /*
+     * retorna un booleano indicando si la casilla se encuentra ocupada por alguna pieza
+     */
+    public boolean isOccupied(int square) {
+        return (occupied & (1L << square)) != 0;
+    }
+
+    public boolean isOccupied(Position position) {
+        return isOccupied(square(position));
+    }
+
+    /*
+     * retorna la casilla donde se encuentra el rey del color pasado por parametro, o -1 si no hay rey en el tablero
+     */
+    public int kingSquare(ColorEnum color) {
+        long king = pieces[index(color, PieceEnum.KING)];
+        if (king == 0)
+            return -1;
+        return Long.numberOfTrailingZeros(king);
+    }
+
+    /*
+     * vuelve a deducir los enroques disponibles a partir de "Piece.wasMoved", debe llamarse si se modifica
+     * "wasMoved" de un rey o una torre por fuera del tablero, como al cargar una posicion
+     */
+    public void refreshCastlingRights() {
+        int rights = 0;
+        if (canCastle(ColorEnum.WHITE, true))
+            rights |= WHITE_KING_SIDE;
+        if (canCastle(ColorEnum.WHITE, false))
+            rights |= WHITE_QUEEN_SIDE;
+        if (canCastle(ColorEnum.BLACK, true))
+            rights |= BLACK_KING_SIDE;
+        if (canCastle(ColorEnum.BLACK, false))
+            rights |= BLACK_QUEEN_SIDE;
+        key ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+        castlingRights = rights;
+    }
+
+    /*
+     * calcula la clave zobrist recorriendo todo el tablero, solo sirve para verificar la clave incremental
+     */
+    public long computeKey() {
+        long output = 0L;
+        for (long iterator = occupied; iterator != 0; iterator &= iterator-1) {
+            int square = Long.numberOfTrailingZeros(iterator);
+            Piece piece = getPiece(square);
+            output ^= Zobrist.pieceSquare(index(piece.getColorOfPiece(), piece.getNameOfPiece()), square);
+        }
+        if (sideToMove.equals(ColorEnum.BLACK))
+            output ^= Zobrist.blackToMove();
+        if (enPassantSquare >= 0)
+            output ^= Zobrist.enPassant(enPassantSquare);
+        return output ^ Zobrist.castling(castlingRights);
+    }
+
+    private void addToBitboards(Piece piece, int square) {
+        long mask = 1L << square;
+        int index = index(piece.getColorOfPiece(), piece.getNameOfPiece());
+        key ^= Zobrist.pieceSquare(index, square);
+        if (piece instanceof Pawn)
+            pawnKey ^= Zobrist.pieceSquare(index, square);
+        midgameScore += PieceSquareTables.midgame(index, square);
+        endgameScore += PieceSquareTables.endgame(index, square);
+        phase += PieceSquareTables.phase(index);
+        pieces[index] |= mask;
+        colors[piece.getColorOfPiece().ordinal()] |= mask;
+        occupied |= mask;
+    }
+
+    private void removeFromBitboards(Piece piece, int square) {
+        long mask = ~(1L << square);
+        int index = index(piece.getColorOfPiece(), piece.getNameOfPiece());
+        key ^= Zobrist.pieceSquare(index, square);
+        if (piece instanceof Pawn)
+            pawnKey ^= Zobrist.pieceSquare(index, square);
+        midgameScore -= PieceSquareTables.midgame(index, square);
+        endgameScore -= PieceSquareTables.endgame(index, square);
+        phase -= PieceSquareTables.phase(index);
+        pieces[index] &= mask;
+        colors[piece.getColorOfPiece().ordinal()] &= mask;
+        occupied &= mask;
+    }
+
+    private void moveInBitboards(Piece piece, int squareOne, int squareTwo) {
+        long mask = (1L << squareOne) | (1L << squareTwo);
+        int index = index(piece.getColorOfPiece(), piece.getNameOfPiece());
+        key ^= Zobrist.pieceSquare(index, squareOne) ^ Zobrist.pieceSquare(index, squareTwo);
+        if (piece instanceof Pawn)
+            pawnKey ^= Zobrist.pieceSquare(index, squareOne) ^ Zobrist.pieceSquare(index, squareTwo);
+        midgameScore += PieceSquareTables.midgame(index, squareTwo) - PieceSquareTables.midgame(index, squareOne);
+        endgameScore += PieceSquareTables.endgame(index, squareTwo) - PieceSquareTables.endgame(index, squareOne);
+        pieces[index] ^= mask;
+        colors[piece.getColorOfPiece().ordinal()] ^= mask;
+        occupied = colors[0] | colors[1];
+    }
+
+    /*
+     * conversiones entre las coordenadas de "Position" y el indice de casilla que usan las mascaras
+     */
+    public static int square(int x, int y) {
+        return x + (y << 3);
+    }
+
+    public static int square(Position position) {
+        return position.getSquare();
+    }
+
+    public static Position position(int square) {
+        return Position.of(square);
+    }
+
+    public static int index(ColorEnum color, PieceEnum name) {
+        return color.ordinal() * PIECE_TYPES + name.ordinal();
+    }
+
+    // GETTERS & SETTERS
+
+    public long getPieces(ColorEnum color, PieceEnum name) {
+        return pieces[index(color, name)];
+    }
+
+    public long getPieces(ColorEnum color) {
+        return colors[color.ordinal()];
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    /*
+     * material y tablas de casillas desde el punto de vista de las blancas, para el medio juego y para el final
+     */
+    public int getMidgameScore() {
+        return midgameScore;
+    }
+
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    /*
+     * fase de la partida segun las piezas que quedan, de 0 a "PieceSquareTables.MAX_PHASE" o mas si hubo promociones
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    public AttackMap getAttackMap() {
+        return attackMap;
+    }
+
+    public ColorEnum getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(ColorEnum sideToMove) {
+        if (!this.sideToMove.equals(sideToMove))
+            key ^= Zobrist.blackToMove();
+        this.sideToMove = sideToMove;
+    }
+
+    /*
+     * cantidad de movimientos en la pila de "makeMove"
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    public int getLastMove() {
+        return ply == 0 ? Move.NONE : moves[ply - 1];
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int enPassantSquare) {
+        if (this.enPassantSquare >= 0)
+            key ^= Zobrist.enPassant(this.enPassantSquare);
+        if (enPassantSquare >= 0)
+            key ^= Zobrist.enPassant(enPassantSquare);
+        this.enPassantSquare = enPassantSquare;
+    }
+}
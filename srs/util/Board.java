@@ -34,4 +34,12 @@ public class Board {
     public Piece getPiece(Position position) {
         return board[position.getX()][position.getY()];
     }
+
+    public void setPiece(Piece piece, int x, int y) {
+        board[x][y] = piece;
+    }
+
+    public Piece getPiece(int x, int y) {
+        return board[x][y];
+    }
 }
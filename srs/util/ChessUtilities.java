@@ -3,10 +3,14 @@ package srs.util;
 import java.util.ArrayList;
 
 import srs.Game;
-import srs.pieces.Piece;
+import srs.GameSession;
 import srs.util.enums.ColorEnum;
 import srs.util.enums.PieceEnum;
 
+/*
+ * los metodos que reciben una "GameSession" trabajan sobre esa partida y pueden usarse desde varios hilos a la vez
+ * con sesiones distintas, los que no la reciben trabajan sobre la partida de "Game"
+ */
 public class ChessUtilities {
 
     private static ChessUtilities instance;
@@ -25,31 +29,39 @@ public class ChessUtilities {
      * retorna la posicion del rey del jugador que fue pasado por argumento del metodo
      */
     public static Position searchKing(ColorEnum player) {
-        for (int i = 0; i < 8; i++)
-            for (int j = 0; j < 8; j++) {
-                Piece piece = Game.getBoard().getPiece(new Position(i, j));
-                if (piece != null)
-                    if (piece.getNameOfPiece().equals(PieceEnum.KING) && piece.getColorOfPiece().equals(player))
-                        return new Position(i, j);
-            }
-        return null;
+        return searchKing(Game.getSession(), player);
+    }
+
+    public static Position searchKing(GameSession session, ColorEnum player) {
+        int square = session.getBoard().kingSquare(player);
+        if (square < 0)
+            return null;
+        return BitboardBoard.position(square);
     }
 
     /*
      * retorna un booleano indicando si el rey indicado por parametro se encuentra en jaque
      */
     public static boolean isCheck() {
-        return isAttacked(searchKing(Game.getPlayer()));
+        return isCheck(Game.getSession());
+    }
+
+    public static boolean isCheck(GameSession session) {
+        return isAttacked(session, searchKing(session, session.getPlayer()));
     }
 
     /*
      * se le pasa una posicion que debe ser la del rey, y retorna un arraylist con las posiciones que no se ven atacadas alrrededor del rey
      */
     public static ArrayList<Position> notAttackedPositionsInCheck(Position position) {
+        return notAttackedPositionsInCheck(Game.getSession(), position);
+    }
+
+    public static ArrayList<Position> notAttackedPositionsInCheck(GameSession session, Position position) {
         ArrayList<Position> output = new ArrayList<>();
-        ArrayList<Position> aroundPositions = Game.getBoard().getPiece(position).possibleMovements(position);
+        ArrayList<Position> aroundPositions = session.getBoard().getPiece(position).possibleMovements(position);
         for (Position positionIterator : aroundPositions)
-            if (!isAttacked(positionIterator))
+            if (!isAttacked(session, positionIterator))
                 output.add(positionIterator);
         return output;
     }
@@ -59,15 +71,20 @@ public class ChessUtilities {
      * incluso en el caso de que pueda llegar a comer una pieza rival
      */
     public static boolean isCheckmate() {
-        if (isCheck()) {
-            ArrayList<Position> tentativeMovements = notAttackedPositionsInCheck(searchKing(Game.getPlayer()));
+        return isCheckmate(Game.getSession());
+    }
+
+    public static boolean isCheckmate(GameSession session) {
+        if (isCheck(session)) {
+            BitboardBoard board = session.getBoard();
+            ArrayList<Position> tentativeMovements = notAttackedPositionsInCheck(session, searchKing(session, session.getPlayer()));
             ArrayList<Position> toRemove = new ArrayList<>();
             for (Position positionIterator : tentativeMovements)
-                if (Game.getBoard().getPiece(positionIterator) != null)
-                    if (Game.getBoard().getPiece(positionIterator).getColorOfPiece().equals(Game.getPlayer()))
+                if (board.getPiece(positionIterator) != null)
+                    if (board.getPiece(positionIterator).getColorOfPiece().equals(session.getPlayer()))
                         toRemove.add(positionIterator);
                     else
-                        if (isAttacked(positionIterator))
+                        if (isAttacked(session, positionIterator))
                             toRemove.add(positionIterator);
             tentativeMovements.removeAll(toRemove);
             if (tentativeMovements.size() == 0)
@@ -80,34 +97,27 @@ public class ChessUtilities {
      * busca si existe un peon que haya completado todo su recorrido y retorna la posicion
      */
     public static Position isPawnPromotion() {
-        for (int i = 0; i < 8; i++) {
-            if (Game.getPlayer().equals(ColorEnum.BLACK))
-                if (Game.getBoard().getPiece(new Position(i, 7)) != null)
-                    if (Game.getBoard().getPiece(new Position(i, 7)).getNameOfPiece().equals(PieceEnum.PAWN))
-                        return  new Position (i, 7);
-            if (Game.getPlayer().equals(ColorEnum.WHITE))
-                if (Game.getBoard().getPiece(new Position(i, 0)) != null)
-                    if (Game.getBoard().getPiece(new Position(i, 0)).getNameOfPiece().equals(PieceEnum.PAWN))
-                        return new Position(i, 0);
-        }
+        return isPawnPromotion(Game.getSession());
+    }
+
+    public static Position isPawnPromotion(GameSession session) {
+        long lastRow = session.getPlayer().equals(ColorEnum.BLACK) ? 0xFF00000000000000L : 0x00000000000000FFL;
+        long pawns = session.getBoard().getPieces(session.getPlayer(), PieceEnum.PAWN) & lastRow;
+        if (pawns != 0)
+            return BitboardBoard.position(Long.numberOfTrailingZeros(pawns));
         return null;
     }
 
     /*
      * se le pasa una posicion por argumento y devuelve un booleano en el caso de
-     * que esa posicion se vea atacada por alguna pieza enemiga
+     * que esa posicion se vea atacada por alguna pieza enemiga, consultando el mapa de ataques del tablero
      */
     public static boolean isAttacked(Position position) {
-        ArrayList<Position> opponentPositions = new ArrayList<>();
-        for (int i = 0; i < 8; i++) // cargo todas las piezas rivales del tablero
-            for (int j = 0; j < 8; j++)
-                if (Game.getBoard().getPiece(new Position(i, j)) != null)
-                    if (Game.getBoard().getPiece(new Position(i, j)).getColorOfPiece().equals(Game.getOpponent()))
-                        opponentPositions.add(new Position(i, j));
-        for (Position opponentPositionIterator : opponentPositions) // analizo los movimientos de todas las fichas enemigas recopiladas y debo corroborar si atacan las posiciones pasadas por parametro
-            if (ValidateMovement.isValidMovement(opponentPositionIterator, position))
-                return true;
-        return false;
+        return isAttacked(Game.getSession(), position);
+    }
+
+    public static boolean isAttacked(GameSession session, Position position) {
+        return session.getBoard().getAttackMap().isAttacked(session.getOpponent(), BitboardBoard.square(position));
     }
 
     /*
@@ -115,16 +125,10 @@ public class ChessUtilities {
      * que alguna de esas posiciones se vea atacada po alguna pieza enemiga
      */
     public static boolean isAttacked(ArrayList<Position> positions) {
-        ArrayList<Position> opponentPositions = new ArrayList<>();
-        for (int i = 0; i < 8; i++) // cargo todas las piezas rivales del tablero
-            for (int j = 0; j < 8; j++)
-                if (Game.getBoard().getPiece(new Position(i, j)) != null)
-                    if (Game.getBoard().getPiece(new Position(i, j)).getColorOfPiece().equals(Game.getOpponent()))
-                        opponentPositions.add(new Position(i, j));
-        for (Position positionIterator : positions) // analizo los movimientos de todas las fichas enemigas recopiladas y debo corroborar si atacan las posiciones pasadas por parametro
-            for (Position opponentPositionIterator : opponentPositions)
-                if (ValidateMovement.isValidMovement(opponentPositionIterator, positionIterator))
-                    return true;
-        return false;
+        return isAttacked(Game.getSession(), positions);
+    }
+
+    public static boolean isAttacked(GameSession session, ArrayList<Position> positions) {
+        return session.getBoard().getAttackMap().isAttacked(session.getOpponent(), Utilities.toMask(positions));
     }
 }
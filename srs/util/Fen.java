@@ -0,0 +1,233 @@
+package srs.util;
+
+import srs.pieces.Piece;
+import srs.util.enums.ColorEnum;
+import srs.util.enums.PieceEnum;
+import srs.util.factory.Factory;
+
+/*
+ * lectura y escritura de posiciones en notacion fen, la lectura recorre el texto caracter por caracter sin dividirlo
+ * ni crear cadenas intermedias, y carga las piezas en el tablero de una vez recalculando los ataques al final,
+ * ya que se usa para cargar grandes cantidades de posiciones de suites de prueba y bases de partidas
+ */
+public class Fen {
+
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static Fen instance;
+
+    private Fen() {
+
+    }
+
+    public static Fen getInstance() {
+        if (instance == null)
+            instance = new Fen();
+        return instance;
+    }
+
+    /*
+     * crea un tablero nuevo a partir del fen pasado por parametro
+     */
+    public static BitboardBoard load(CharSequence fen) {
+        BitboardBoard board = new BitboardBoard();
+        load(fen, board);
+        return board;
+    }
+
+    /*
+     * vacia el tablero y carga las piezas, el turno, los enroques, la captura al paso y los contadores de un fen,
+     * los campos que faltan al final toman su valor por defecto ("w - - 0 1"), los enroques se traducen marcando
+     * como movidos al rey y a las torres que ya no pueden enrocar, y un fen mal formado lanza "IllegalArgumentException"
+     */
+    public static void load(CharSequence fen, BitboardBoard board) {
+        board.clear();
+        int length = fen.length();
+        int index = skipSpaces(fen, 0);
+        int square = 0;
+        int row = 0;
+        for (; index < length && fen.charAt(index) != ' '; index++) {
+            char c = fen.charAt(index);
+            int rowEnd = (row + 1) << 3;
+            if (c == '/') {
+                if (square != rowEnd || row == 7)
+                    throw invalid(fen, index);
+                row++;
+            }
+            else if (c >= '1' && c <= '8') {
+                square += c - '0';
+                if (square > rowEnd)
+                    throw invalid(fen, index);
+            }
+            else {
+                PieceEnum name = pieceEnum(c);
+                if (name == null || square >= rowEnd)
+                    throw invalid(fen, index);
+                ColorEnum color = c < 'a' ? ColorEnum.WHITE : ColorEnum.BLACK;
+                Piece piece = Factory.createPiece(name, color);
+                if (name.equals(PieceEnum.PAWN))
+                    piece.setWasMoved((square >>> 3) != (color.equals(ColorEnum.WHITE) ? 6 : 1));
+                else
+                    piece.setWasMoved(true);
+                board.placePiece(piece, square);
+                square++;
+            }
+        }
+        if (square != 64)
+            throw invalid(fen, index);
+        index = skipSpaces(fen, index);
+        if (index < length) {
+            char c = fen.charAt(index++);
+            if (c == 'b')
+                board.setSideToMove(ColorEnum.BLACK);
+            else if (c != 'w')
+                throw invalid(fen, index - 1);
+        }
+        index = skipSpaces(fen, index);
+        for (; index < length && fen.charAt(index) != ' '; index++)
+            switch (fen.charAt(index)) {
+                case 'K' -> unmarkCastling(board, BitboardBoard.WHITE_KING_SQUARE, BitboardBoard.WHITE_KING_SQUARE + 3);
+                case 'Q' -> unmarkCastling(board, BitboardBoard.WHITE_KING_SQUARE, BitboardBoard.WHITE_KING_SQUARE - 4);
+                case 'k' -> unmarkCastling(board, BitboardBoard.BLACK_KING_SQUARE, BitboardBoard.BLACK_KING_SQUARE + 3);
+                case 'q' -> unmarkCastling(board, BitboardBoard.BLACK_KING_SQUARE, BitboardBoard.BLACK_KING_SQUARE - 4);
+                case '-' -> {
+                    // VOID
+                }
+                default -> throw invalid(fen, index);
+            }
+        board.refresh();
+        index = skipSpaces(fen, index);
+        if (index < length && fen.charAt(index) != '-') {
+            if (index + 1 >= length || fen.charAt(index) < 'a' || fen.charAt(index) > 'h' || (fen.charAt(index + 1) != '3' && fen.charAt(index + 1) != '6'))
+                throw invalid(fen, index);
+            board.setEnPassantSquare(fen.charAt(index) - 'a' + 8 * ('8' - fen.charAt(index + 1)));
+            index += 2;
+        }
+        else if (index < length)
+            index++;
+        index = skipSpaces(fen, index);
+        int halfmoveClock = 0;
+        for (; index < length && fen.charAt(index) >= '0' && fen.charAt(index) <= '9'; index++)
+            halfmoveClock = halfmoveClock * 10 + fen.charAt(index) - '0';
+        index = skipSpaces(fen, index);
+        int fullmoveNumber = 0;
+        for (; index < length && fen.charAt(index) >= '0' && fen.charAt(index) <= '9'; index++)
+            fullmoveNumber = fullmoveNumber * 10 + fen.charAt(index) - '0';
+        board.setHalfmoveClock(halfmoveClock);
+        board.setFullmoveNumber(Math.max(fullmoveNumber, 1));
+    }
+
+    /*
+     * retorna el fen de la posicion del tablero
+     */
+    public static String toString(BitboardBoard board) {
+        StringBuilder output = new StringBuilder(90);
+        append(board, output);
+        return output.toString();
+    }
+
+    /*
+     * agrega el fen de la posicion del tablero al final del builder, para escribir muchas posiciones sin crear cadenas
+     */
+    public static void append(BitboardBoard board, StringBuilder output) {
+        for (int y = 0; y < 8; y++) {
+            int empty = 0;
+            for (int x = 0; x < 8; x++) {
+                Piece piece = board.getPiece(x, y);
+                if (piece == null)
+                    empty++;
+                else {
+                    if (empty > 0)
+                        output.append((char) ('0' + empty));
+                    empty = 0;
+                    output.append(symbol(piece));
+                }
+            }
+            if (empty > 0)
+                output.append((char) ('0' + empty));
+            if (y < 7)
+                output.append('/');
+        }
+        output.append(board.getSideToMove().equals(ColorEnum.WHITE) ? " w " : " b ");
+        int rights = board.getCastlingRights();
+        if (rights == 0)
+            output.append('-');
+        if ((rights & BitboardBoard.WHITE_KING_SIDE) != 0)
+            output.append('K');
+        if ((rights & BitboardBoard.WHITE_QUEEN_SIDE) != 0)
+            output.append('Q');
+        if ((rights & BitboardBoard.BLACK_KING_SIDE) != 0)
+            output.append('k');
+        if ((rights & BitboardBoard.BLACK_QUEEN_SIDE) != 0)
+            output.append('q');
+        output.append(' ');
+        int enPassant = board.getEnPassantSquare();
+        if (enPassant < 0)
+            output.append('-');
+        else
+            output.append((char) ('a' + (enPassant & 7))).append((char) ('8' - (enPassant >>> 3)));
+        output.append(' ').append(board.getHalfmoveClock()).append(' ').append(board.getFullmoveNumber());
+    }
+
+    /*
+     * letra de la pieza en notacion fen, mayuscula para las blancas
+     */
+    public static char symbol(Piece piece) {
+        char output;
+        switch (piece.getNameOfPiece()) {
+            case PAWN -> output = 'p';
+            case KING -> output = 'k';
+            case QUEEN -> output = 'q';
+            case BISHOP -> output = 'b';
+            case KNIGHT -> output = 'n';
+            default -> output = 'r';
+        }
+        return piece.getColorOfPiece().equals(ColorEnum.WHITE) ? (char) (output - 'a' + 'A') : output;
+    }
+
+    /*
+     * tipo de pieza de una letra en notacion fen, sin importar si es mayuscula o minuscula, o null si no es una pieza
+     */
+    public static PieceEnum pieceEnum(char c) {
+        switch (c | 0x20) {
+            case 'p' -> {
+                return PieceEnum.PAWN;
+            }
+            case 'n' -> {
+                return PieceEnum.KNIGHT;
+            }
+            case 'b' -> {
+                return PieceEnum.BISHOP;
+            }
+            case 'r' -> {
+                return PieceEnum.ROOK;
+            }
+            case 'q' -> {
+                return PieceEnum.QUEEN;
+            }
+            case 'k' -> {
+                return PieceEnum.KING;
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private static void unmarkCastling(BitboardBoard board, int kingSquare, int rookSquare) {
+        if (board.getPiece(kingSquare) != null && board.getPiece(rookSquare) != null) {
+            board.getPiece(kingSquare).setWasMoved(false);
+            board.getPiece(rookSquare).setWasMoved(false);
+        }
+    }
+
+    private static int skipSpaces(CharSequence fen, int index) {
+        while (index < fen.length() && fen.charAt(index) == ' ')
+            index++;
+        return index;
+    }
+
+    private static IllegalArgumentException invalid(CharSequence fen, int index) {
+        return new IllegalArgumentException("fen no valido en la posicion " + index + ": " + fen);
+    }
+}
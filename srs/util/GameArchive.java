@@ -0,0 +1,148 @@
+package srs.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+ * archivo de partidas en formato binario compacto que se escribe y se lee en forma secuencial
+ *
+ * el archivo comienza con "SRSG" y un byte de version, y luego cada partida ocupa:
+ * un byte con el resultado en los bits 0-1 y en el bit 2 si tiene posicion inicial propia,
+ * el fen de la posicion inicial si lo tiene (largo en varint y bytes ascii),
+ * la cantidad de medios movimientos en varint y 2 bytes por cada medio movimiento, en el formato de 16 bits
+ * de "GameRecord": bits 0-5 origen, 6-11 destino y 12-14 promocion + 1 (0 si no hay promocion)
+ *
+ * no se guarda informacion para deshacer los movimientos: la captura, el enroque y la captura al paso se deducen
+ * de la posicion al reproducir la partida con "GameRecord.replay", y se deshacen con la pila del tablero
+ */
+public class GameArchive {
+
+    private static final byte[] MAGIC = {'S', 'R', 'S', 'G'};
+    private static final int VERSION = 1;
+    private static final int HAS_FEN = 1 << 2;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private GameArchive() {
+
+    }
+
+    public static Writer newWriter(Path path) throws IOException {
+        return new Writer(new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE)));
+    }
+
+    public static Reader newReader(Path path) throws IOException {
+        return new Reader(new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE)));
+    }
+
+    public static class Writer implements Closeable {
+
+        private DataOutputStream output;
+        private long games;
+
+        private Writer(DataOutputStream output) throws IOException {
+            this.output = output;
+            output.write(MAGIC);
+            output.writeByte(VERSION);
+            games = 0L;
+        }
+
+        public void write(GameRecord record) throws IOException {
+            String fen = record.getStartFen();
+            output.writeByte((record.getResult() & 3) | (fen != null ? HAS_FEN : 0));
+            if (fen != null) {
+                writeVarint(fen.length());
+                output.writeBytes(fen);
+            }
+            writeVarint(record.size());
+            for (int i = 0; i < record.size(); i++)
+                output.writeShort(record.getMove(i));
+            games++;
+        }
+
+        private void writeVarint(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                output.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            output.writeByte(value);
+        }
+
+        public void close() throws IOException {
+            output.close();
+        }
+
+        // GETTERS & SETTERS
+
+        public long getGames() {
+            return games;
+        }
+    }
+
+    public static class Reader implements Closeable {
+
+        private DataInputStream input;
+        private byte[] fen;
+
+        private Reader(DataInputStream input) throws IOException {
+            this.input = input;
+            fen = new byte[128];
+            byte[] header = new byte[MAGIC.length];
+            input.readFully(header);
+            for (int i = 0; i < MAGIC.length; i++)
+                if (header[i] != MAGIC[i])
+                    throw new IOException("el archivo no es un archivo de partidas");
+            if (input.readUnsignedByte() != VERSION)
+                throw new IOException("version de archivo de partidas no soportada");
+        }
+
+        /*
+         * carga en el registro la siguiente partida, reemplazando su contenido, y retorna false al llegar al final del archivo,
+         * las posiciones se reconstruyen con "GameRecord.replay"
+         */
+        public boolean next(GameRecord record) throws IOException {
+            int flags = input.read();
+            if (flags < 0)
+                return false;
+            record.clear();
+            record.setResult(flags & 3);
+            try {
+                if ((flags & HAS_FEN) != 0) {
+                    int length = readVarint();
+                    if (length > fen.length)
+                        fen = new byte[length];
+                    input.readFully(fen, 0, length);
+                    record.setStartFen(new String(fen, 0, length, StandardCharsets.US_ASCII));
+                }
+                int plies = readVarint();
+                for (int i = 0; i < plies; i++)
+                    record.addShort(input.readUnsignedShort());
+            } catch (EOFException e) {
+                throw new IOException("archivo de partidas truncado", e);
+            }
+            return true;
+        }
+
+        private int readVarint() throws IOException {
+            int output = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int value = input.readUnsignedByte();
+                output |= (value & 0x7F) << shift;
+                if ((value & 0x80) == 0)
+                    return output;
+            }
+            throw new IOException("varint no valido en el archivo de partidas");
+        }
+
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package srs.util;
+
+import java.util.Arrays;
+
+/*
+ * historial compacto de una partida: un short por medio movimiento en un arreglo que crece, ademas
+ * de la posicion inicial si no es la habitual y el resultado
+ *
+ * cada medio movimiento guarda en los bits 0-5 el origen, en los 6-11 el destino y en los 12-14 la promocion + 1,
+ * la pieza capturada, el enroque y la captura al paso se deducen de la posicion al realizarlo con "fromShort",
+ * y para volver atras se usa la pila de "BitboardBoard.makeMove", por lo que no se guarda informacion para deshacerlo
+ */
+public class GameRecord {
+
+    public static final int UNKNOWN = 0; // partida sin terminar o resultado desconocido ("*")
+    public static final int WHITE_WINS = 1;
+    public static final int BLACK_WINS = 2;
+    public static final int DRAW = 3;
+
+    private short[] plies;
+    private int size;
+    private String startFen; // null si la partida empieza en la posicion inicial
+    private int result;
+
+    public GameRecord() {
+        plies = new short[64];
+        size = 0;
+        startFen = null;
+        result = UNKNOWN;
+    }
+
+    /*
+     * agrega el movimiento empaquetado de "Move"
+     */
+    public void add(int move) {
+        addShort(toShort(move));
+    }
+
+    /*
+     * agrega un movimiento de 16 bits, como los que se leen de un archivo
+     */
+    public void addShort(int move) {
+        if (size == plies.length)
+            plies = Arrays.copyOf(plies, size * 2);
+        plies[size++] = (short) move;
+    }
+
+    public int removeLast() {
+        return plies[--size] & 0xFFFF;
+    }
+
+    public void clear() {
+        size = 0;
+        startFen = null;
+        result = UNKNOWN;
+    }
+
+    /*
+     * carga la posicion inicial en el tablero y realiza todos los movimientos, que despues se pueden deshacer
+     * con "BitboardBoard.unmakeMove", retorna la cantidad de movimientos realizados, que es menor a "size"
+     * si alguno no es legal
+     */
+    public int replay(BitboardBoard board) {
+        Fen.load(startFen != null ? startFen : Fen.START_POSITION, board);
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        for (int i = 0; i < size; i++) {
+            int move = fromShort(board, getMove(i), buffer);
+            if (move == Move.NONE)
+                return i;
+            board.makeMove(move);
+        }
+        return size;
+    }
+
+    /*
+     * version de 16 bits de un movimiento empaquetado de "Move"
+     */
+    public static int toShort(int move) {
+        return Move.from(move) | Move.to(move) << 6 | (Move.promotion(move) + 1) << 12;
+    }
+
+    /*
+     * retorna el movimiento legal del tablero que corresponde al movimiento de 16 bits, o "Move.NONE" si no hay ninguno,
+     * el enroque, la captura al paso y la pieza capturada se deducen de la posicion
+     */
+    public static int fromShort(BitboardBoard board, int move) {
+        return fromShort(board, move, new int[MoveGenerator.MAX_MOVES]);
+    }
+
+    public static int fromShort(BitboardBoard board, int move, int[] buffer) {
+        int count = MoveGenerator.generatePseudoLegalMoves(board, buffer);
+        int target = move & 0xFFFF;
+        for (int i = 0; i < count; i++)
+            if (toShort(buffer[i]) == target && MoveGenerator.isLegal(board, buffer[i]))
+                return buffer[i];
+        return Move.NONE;
+    }
+
+    public static int result(String name) {
+        switch (name) {
+            case "1-0" -> {
+                return WHITE_WINS;
+            }
+            case "0-1" -> {
+                return BLACK_WINS;
+            }
+            case "1/2-1/2" -> {
+                return DRAW;
+            }
+            default -> {
+                return UNKNOWN;
+            }
+        }
+    }
+
+    public static String resultName(int result) {
+        switch (result) {
+            case WHITE_WINS -> {
+                return "1-0";
+            }
+            case BLACK_WINS -> {
+                return "0-1";
+            }
+            case DRAW -> {
+                return "1/2-1/2";
+            }
+            default -> {
+                return "*";
+            }
+        }
+    }
+
+    // GETTERS & SETTERS
+
+    public int size() {
+        return size;
+    }
+
+    /*
+     * movimiento de 16 bits del medio movimiento indicado
+     */
+    public int getMove(int index) {
+        return plies[index] & 0xFFFF;
+    }
+
+    public String getStartFen() {
+        return startFen;
+    }
+
+    public void setStartFen(String startFen) {
+        this.startFen = startFen;
+    }
+
+    public int getResult() {
+        return result;
+    }
+
+    public void setResult(int result) {
+        this.result = result;
+    }
+}
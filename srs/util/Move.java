@@ -0,0 +1,105 @@
+package srs.util;
+
+import srs.util.enums.PieceEnum;
+
+/*
+ * un movimiento empaquetado en un int, pensado para generar y recorrer movimientos sin crear objetos:
+ * bits 0-5 casilla de origen, bits 6-11 casilla de destino, bits 12-14 tipo de la pieza movida,
+ * bits 15-17 tipo de la pieza capturada + 1 (0 si no hay captura), bits 18-20 tipo de la pieza de promocion + 1
+ * (0 si no hay promocion), bit 21 enroque, bit 22 captura al paso y bit 23 avance doble de peon
+ */
+public class Move {
+
+    public static final int NONE = 0;
+
+    public static final int CASTLING = 1 << 21;
+    public static final int EN_PASSANT = 1 << 22;
+    public static final int DOUBLE_PUSH = 1 << 23;
+
+    private static final PieceEnum[] PIECES = PieceEnum.values();
+
+    private static Move instance;
+
+    private Move() {
+
+    }
+
+    public static Move getInstance() {
+        if (instance == null)
+            instance = new Move();
+        return instance;
+    }
+
+    /*
+     * "captured" y "promotion" reciben el ordinal del tipo de pieza, o -1 si no corresponde
+     */
+    public static int encode(int from, int to, int piece, int captured, int promotion, int flags) {
+        return from | (to << 6) | (piece << 12) | ((captured + 1) << 15) | ((promotion + 1) << 18) | flags;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int piece(int move) {
+        return (move >>> 12) & 0x7;
+    }
+
+    public static int captured(int move) {
+        return ((move >>> 15) & 0x7) - 1;
+    }
+
+    public static int promotion(int move) {
+        return ((move >>> 18) & 0x7) - 1;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & (0x7 << 15)) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move & (0x7 << 18)) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        return (move & CASTLING) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    public static boolean isDoublePush(int move) {
+        return (move & DOUBLE_PUSH) != 0;
+    }
+
+    public static PieceEnum pieceEnum(int ordinal) {
+        return PIECES[ordinal];
+    }
+
+    /*
+     * retorna el movimiento en notacion de coordenadas, por ejemplo "e2e4" o "e7e8q"
+     */
+    public static String toString(int move) {
+        String output = squareName(from(move)) + squareName(to(move));
+        if (isPromotion(move))
+            switch (pieceEnum(promotion(move))) {
+                case QUEEN -> output += "q";
+                case ROOK -> output += "r";
+                case BISHOP -> output += "b";
+                case KNIGHT -> output += "n";
+                default -> {
+                    // VOID
+                }
+            }
+        return output;
+    }
+
+    public static String squareName(int square) {
+        return "" + (char) ('a' + (square & 7)) + (char) ('8' - (square >>> 3));
+    }
+}
@@ -0,0 +1,172 @@
+package srs.util;
+
+import srs.pieces.Piece;
+import srs.util.enums.ColorEnum;
+import srs.util.enums.PieceEnum;
+
+public class MoveGenerator {
+
+    public static final int MAX_MOVES = 256; // cota superior de movimientos legales en cualquier posicion
+
+    private static final int PAWN = PieceEnum.PAWN.ordinal();
+    private static final int KING = PieceEnum.KING.ordinal();
+    private static final int QUEEN = PieceEnum.QUEEN.ordinal();
+    private static final int BISHOP = PieceEnum.BISHOP.ordinal();
+    private static final int KNIGHT = PieceEnum.KNIGHT.ordinal();
+    private static final int ROOK = PieceEnum.ROOK.ordinal();
+
+    private static final long FIRST_ROW = 0x00000000000000FFL; // fila 8, donde promocionan las blancas
+    private static final long LAST_ROW = 0xFF00000000000000L; // fila 1, donde promocionan las negras
+
+    private static MoveGenerator instance;
+
+    private MoveGenerator() {
+
+    }
+
+    public static MoveGenerator getInstance() {
+        if (instance == null)
+            instance = new MoveGenerator();
+        return instance;
+    }
+
+    /*
+     * carga en el arreglo pasado por parametro los movimientos legales del jugador que tiene el turno en el tablero,
+     * y retorna la cantidad de movimientos cargados, el arreglo debe tener lugar para al menos "MAX_MOVES" movimientos
+     */
+    public static int generateMoves(BitboardBoard board, int[] moves) {
+        int count = generatePseudoLegalMoves(board, moves);
+        int legal = 0;
+        for (int i = 0; i < count; i++)
+            if (isLegal(board, moves[i]))
+                moves[legal++] = moves[i];
+        return legal;
+    }
+
+    /*
+     * retorna el movimiento legal que tiene la notacion de coordenadas pasada por parametro ("e2e4", "e7e8q"),
+     * o "Move.NONE" si no hay ninguno
+     */
+    public static int findMove(BitboardBoard board, String text) {
+        int[] moves = new int[MAX_MOVES];
+        int count = generateMoves(board, moves);
+        for (int i = 0; i < count; i++)
+            if (Move.toString(moves[i]).equals(text))
+                return moves[i];
+        return Move.NONE;
+    }
+
+    /*
+     * analiza si el movimiento deja al rey propio en jaque, realizandolo sobre el tablero y deshaciendolo
+     */
+    public static boolean isLegal(BitboardBoard board, int move) {
+        ColorEnum player = board.getSideToMove();
+        board.makeMove(move);
+        boolean output = !board.getAttackMap().isAttacked(BitboardBoard.opponent(player), board.kingSquare(player));
+        board.unmakeMove(move);
+        return output;
+    }
+
+    /*
+     * carga los movimientos que respetan la forma de moverse de cada pieza, sin verificar si dejan al rey propio en jaque,
+     * el enroque es la excepcion ya que sus condiciones sobre casillas atacadas se verifican aca mismo
+     */
+    public static int generatePseudoLegalMoves(BitboardBoard board, int[] moves) {
+        ColorEnum player = board.getSideToMove();
+        ColorEnum opponent = BitboardBoard.opponent(player);
+        long own = board.getPieces(player);
+        long enemies = board.getPieces(opponent);
+        long occupied = board.getOccupied();
+        int count = 0;
+        count = generatePawnMoves(board, moves, count, player, enemies, occupied);
+        for (long iterator = board.getPieces(player, PieceEnum.KNIGHT); iterator != 0; iterator &= iterator-1) {
+            int from = Long.numberOfTrailingZeros(iterator);
+            count = addMoves(board, moves, count, from, KNIGHT, AttackTables.knightAttacks(from) & ~own);
+        }
+        for (long iterator = board.getPieces(player, PieceEnum.BISHOP); iterator != 0; iterator &= iterator-1) {
+            int from = Long.numberOfTrailingZeros(iterator);
+            count = addMoves(board, moves, count, from, BISHOP, AttackTables.bishopAttacks(from, occupied) & ~own);
+        }
+        for (long iterator = board.getPieces(player, PieceEnum.ROOK); iterator != 0; iterator &= iterator-1) {
+            int from = Long.numberOfTrailingZeros(iterator);
+            count = addMoves(board, moves, count, from, ROOK, AttackTables.rookAttacks(from, occupied) & ~own);
+        }
+        for (long iterator = board.getPieces(player, PieceEnum.QUEEN); iterator != 0; iterator &= iterator-1) {
+            int from = Long.numberOfTrailingZeros(iterator);
+            count = addMoves(board, moves, count, from, QUEEN, AttackTables.queenAttacks(from, occupied) & ~own);
+        }
+        int king = board.kingSquare(player);
+        if (king >= 0) {
+            count = addMoves(board, moves, count, king, KING, AttackTables.kingAttacks(king) & ~own);
+            count = generateCastlingMoves(board, moves, count, player, opponent, king, occupied);
+        }
+        return count;
+    }
+
+    private static int generatePawnMoves(BitboardBoard board, int[] moves, int count, ColorEnum player, long enemies, long occupied) {
+        long promotionRow = player.equals(ColorEnum.WHITE) ? FIRST_ROW : LAST_ROW;
+        int startRow = player.equals(ColorEnum.WHITE) ? 6 : 1;
+        int enPassant = board.getEnPassantSquare();
+        for (long iterator = board.getPieces(player, PieceEnum.PAWN); iterator != 0; iterator &= iterator-1) {
+            int from = Long.numberOfTrailingZeros(iterator);
+            long pushes = AttackTables.pawnPushes(player, from, occupied, (from >>> 3) != startRow);
+            long takes = AttackTables.pawnAttacks(player, from);
+            for (long targets = pushes; targets != 0; targets &= targets-1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                if (((1L << to) & promotionRow) != 0)
+                    count = addPromotions(moves, count, from, to, -1);
+                else if (Math.abs(to - from) == 16)
+                    moves[count++] = Move.encode(from, to, PAWN, -1, -1, Move.DOUBLE_PUSH);
+                else
+                    moves[count++] = Move.encode(from, to, PAWN, -1, -1, 0);
+            }
+            for (long targets = takes & enemies; targets != 0; targets &= targets-1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                int captured = board.getPiece(to).getNameOfPiece().ordinal();
+                if (((1L << to) & promotionRow) != 0)
+                    count = addPromotions(moves, count, from, to, captured);
+                else
+                    moves[count++] = Move.encode(from, to, PAWN, captured, -1, 0);
+            }
+            if (enPassant >= 0 && (takes & (1L << enPassant)) != 0)
+                moves[count++] = Move.encode(from, enPassant, PAWN, PAWN, -1, Move.EN_PASSANT);
+        }
+        return count;
+    }
+
+    private static int addPromotions(int[] moves, int count, int from, int to, int captured) {
+        moves[count++] = Move.encode(from, to, PAWN, captured, QUEEN, 0);
+        moves[count++] = Move.encode(from, to, PAWN, captured, ROOK, 0);
+        moves[count++] = Move.encode(from, to, PAWN, captured, BISHOP, 0);
+        moves[count++] = Move.encode(from, to, PAWN, captured, KNIGHT, 0);
+        return count;
+    }
+
+    private static int addMoves(BitboardBoard board, int[] moves, int count, int from, int piece, long targets) {
+        for (; targets != 0; targets &= targets-1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            Piece captured = board.getPiece(to);
+            moves[count++] = Move.encode(from, to, piece, captured == null ? -1 : captured.getNameOfPiece().ordinal(), -1, 0);
+        }
+        return count;
+    }
+
+    /*
+     * el rey no puede estar en jaque, no deben haber piezas entre el rey y la torre,
+     * y ninguna casilla que recorre el rey puede estar atacada
+     */
+    private static int generateCastlingMoves(BitboardBoard board, int[] moves, int count, ColorEnum player, ColorEnum opponent, int king, long occupied) {
+        AttackMap attackMap = board.getAttackMap();
+        if (attackMap.isAttacked(opponent, king))
+            return count;
+        if (board.canCastle(player, true)
+                && (AttackTables.between(king, king + 3) & occupied) == 0
+                && !attackMap.isAttacked(opponent, (1L << (king + 1)) | (1L << (king + 2))))
+            moves[count++] = Move.encode(king, king + 2, KING, -1, -1, Move.CASTLING);
+        if (board.canCastle(player, false)
+                && (AttackTables.between(king, king - 4) & occupied) == 0
+                && !attackMap.isAttacked(opponent, (1L << (king - 1)) | (1L << (king - 2))))
+            moves[count++] = Move.encode(king, king - 2, KING, -1, -1, Move.CASTLING);
+        return count;
+    }
+}
@@ -0,0 +1,146 @@
+package srs.util;
+
+/*
+ * valor de cada pieza en cada casilla para el medio juego y para el final, sumando el material y la tabla de la casilla,
+ * positivo para las piezas blancas y negativo para las negras, por lo que la suma sobre todas las piezas del tablero
+ * es la ventaja de las blancas, "BitboardBoard" la mantiene en forma incremental
+ *
+ * las tablas se escriben desde el punto de vista de las blancas con a8 como primera casilla, igual que el indice
+ * de "BitboardBoard", para las negras se refleja la fila con "square ^ 56"
+ */
+public class PieceSquareTables {
+
+    private static PieceSquareTables instance;
+
+    public static final int MAX_PHASE = 24; // fase con todas las piezas menores, torres y damas en el tablero
+
+    // indexadas por "PieceEnum.ordinal()": peon, rey, dama, alfil, caballo, torre
+    private static final int[] MIDGAME_VALUES = {82, 0, 1025, 365, 337, 477};
+    private static final int[] ENDGAME_VALUES = {94, 0, 936, 297, 281, 512};
+    private static final int[] PHASES = {0, 0, 4, 1, 1, 2};
+
+    private static final int[] PAWN_MIDGAME = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+         50,  50,  50,  50,  50,  50,  50,  50,
+         10,  10,  20,  30,  30,  20,  10,  10,
+          5,   5,  10,  25,  25,  10,   5,   5,
+          0,   0,   0,  20,  20,   0,   0,   0,
+          5,  -5, -10,   0,   0, -10,  -5,   5,
+          5,  10,  10, -20, -20,  10,  10,   5,
+          0,   0,   0,   0,   0,   0,   0,   0
+    };
+    private static final int[] PAWN_ENDGAME = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+         80,  80,  80,  80,  80,  80,  80,  80,
+         50,  50,  50,  50,  50,  50,  50,  50,
+         30,  30,  30,  30,  30,  30,  30,  30,
+         20,  20,  20,  20,  20,  20,  20,  20,
+         10,  10,  10,  10,  10,  10,  10,  10,
+          5,   5,   5,   5,   5,   5,   5,   5,
+          0,   0,   0,   0,   0,   0,   0,   0
+    };
+    private static final int[] KNIGHT = {
+        -50, -40, -30, -30, -30, -30, -40, -50,
+        -40, -20,   0,   0,   0,   0, -20, -40,
+        -30,   0,  10,  15,  15,  10,   0, -30,
+        -30,   5,  15,  20,  20,  15,   5, -30,
+        -30,   0,  15,  20,  20,  15,   0, -30,
+        -30,   5,  10,  15,  15,  10,   5, -30,
+        -40, -20,   0,   5,   5,   0, -20, -40,
+        -50, -40, -30, -30, -30, -30, -40, -50
+    };
+    private static final int[] BISHOP = {
+        -20, -10, -10, -10, -10, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,  10,  10,   5,   0, -10,
+        -10,   5,   5,  10,  10,   5,   5, -10,
+        -10,   0,  10,  10,  10,  10,   0, -10,
+        -10,  10,  10,  10,  10,  10,  10, -10,
+        -10,   5,   0,   0,   0,   0,   5, -10,
+        -20, -10, -10, -10, -10, -10, -10, -20
+    };
+    private static final int[] ROOK_MIDGAME = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+          5,  10,  10,  10,  10,  10,  10,   5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+          0,   0,   0,   5,   5,   0,   0,   0
+    };
+    private static final int[] ROOK_ENDGAME = new int[64]; // en el final la torre vale lo mismo en cualquier casilla
+    private static final int[] QUEEN = {
+        -20, -10, -10,  -5,  -5, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,   5,   5,   5,   0, -10,
+         -5,   0,   5,   5,   5,   5,   0,  -5,
+          0,   0,   5,   5,   5,   5,   0,  -5,
+        -10,   5,   5,   5,   5,   5,   0, -10,
+        -10,   0,   5,   0,   0,   0,   0, -10,
+        -20, -10, -10,  -5,  -5, -10, -10, -20
+    };
+    private static final int[] KING_MIDGAME = {
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -20, -30, -30, -40, -40, -30, -30, -20,
+        -10, -20, -20, -20, -20, -20, -20, -10,
+         20,  20,   0,   0,   0,   0,  20,  20,
+         20,  30,  10,   0,   0,  10,  30,  20
+    };
+    private static final int[] KING_ENDGAME = {
+        -50, -40, -30, -20, -20, -30, -40, -50,
+        -30, -20, -10,   0,   0, -10, -20, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -30,   0,   0,   0,   0, -30, -30,
+        -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    private static final int[][] MIDGAME_TABLES = {PAWN_MIDGAME, KING_MIDGAME, QUEEN, BISHOP, KNIGHT, ROOK_MIDGAME};
+    private static final int[][] ENDGAME_TABLES = {PAWN_ENDGAME, KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK_ENDGAME};
+
+    // indexadas por "BitboardBoard.index(color, name)" y por casilla
+    private static final int[][] MIDGAME = new int[BitboardBoard.COLORS * BitboardBoard.PIECE_TYPES][BitboardBoard.SQUARES];
+    private static final int[][] ENDGAME = new int[BitboardBoard.COLORS * BitboardBoard.PIECE_TYPES][BitboardBoard.SQUARES];
+
+    static {
+        for (int type = 0; type < BitboardBoard.PIECE_TYPES; type++)
+            for (int square = 0; square < BitboardBoard.SQUARES; square++) {
+                int white = BitboardBoard.PIECE_TYPES + type; // "ColorEnum.WHITE.ordinal()" es 1
+                MIDGAME[white][square] = MIDGAME_VALUES[type] + MIDGAME_TABLES[type][square];
+                ENDGAME[white][square] = ENDGAME_VALUES[type] + ENDGAME_TABLES[type][square];
+                MIDGAME[type][square] = -(MIDGAME_VALUES[type] + MIDGAME_TABLES[type][square ^ 56]);
+                ENDGAME[type][square] = -(ENDGAME_VALUES[type] + ENDGAME_TABLES[type][square ^ 56]);
+            }
+    }
+
+    private PieceSquareTables() {
+
+    }
+
+    public static PieceSquareTables getInstance() {
+        if (instance == null)
+            instance = new PieceSquareTables();
+        return instance;
+    }
+
+    public static int midgame(int index, int square) {
+        return MIDGAME[index][square];
+    }
+
+    public static int endgame(int index, int square) {
+        return ENDGAME[index][square];
+    }
+
+    /*
+     * cuanto aporta la pieza a la fase de la partida, que va de 0 en un final de reyes y peones a "MAX_PHASE"
+     */
+    public static int phase(int index) {
+        return PHASES[index % BitboardBoard.PIECE_TYPES];
+    }
+}
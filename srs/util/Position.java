@@ -1,13 +1,56 @@
 package srs.util;
 
-public class Position {
-    
-    private int x;
-    private int y;
+/*
+ * casilla del tablero, inmutable: existen solo 64 instancias, una por casilla, que se obtienen con "of",
+ * por lo que 2 posiciones son iguales si y solo si son la misma instancia, y nunca se crean posiciones nuevas
+ *
+ * la casilla se indexa igual que en "BitboardBoard", como "x + 8*y"
+ */
+public final class Position {
 
-    public Position(int x, int y) {
+    private static final Position[] SQUARES = new Position[64];
+
+    static {
+        for (int square = 0; square < SQUARES.length; square++)
+            SQUARES[square] = new Position(square & 7, square >>> 3);
+    }
+
+    private final int x;
+    private final int y;
+    private final int square;
+
+    private Position(int x, int y) {
         this.x = x;
         this.y = y;
+        this.square = x + (y << 3);
+    }
+
+    /*
+     * retorna la posicion de las coordenadas, lanzando "IndexOutOfBoundsException" si estan fuera del tablero
+     */
+    public static Position of(int x, int y) {
+        if ((x | y) < 0 || x > 7 || y > 7)
+            throw new IndexOutOfBoundsException("posicion fuera del tablero: " + x + ", " + y);
+        return SQUARES[x + (y << 3)];
+    }
+
+    public static Position of(int square) {
+        return SQUARES[square];
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return this == object;
+    }
+
+    @Override
+    public int hashCode() {
+        return square;
+    }
+
+    @Override
+    public String toString() {
+        return Move.squareName(square);
     }
 
     // GETTERS & SETTERS
@@ -19,4 +62,15 @@ public class Position {
     public int getY() {
         return y;
     }
+
+    public int getSquare() {
+        return square;
+    }
+
+    /*
+     * mascara de bits con solo esta casilla, para comparar contra las mascaras de "BitboardBoard"
+     */
+    public long getMask() {
+        return 1L << square;
+    }
 }
@@ -0,0 +1,140 @@
+package srs.util;
+
+import srs.util.enums.ColorEnum;
+import srs.util.enums.PieceEnum;
+
+/*
+ * notacion algebraica estandar (san), la que usan los archivos pgn: "e4", "Nxf3", "R1e2", "exd8=Q+", "O-O-O"
+ */
+public class San {
+
+    private static final String LETTERS = "PKQBNR"; // letra de cada pieza, indexada por "PieceEnum.ordinal()"
+
+    private static San instance;
+
+    private San() {
+
+    }
+
+    public static San getInstance() {
+        if (instance == null)
+            instance = new San();
+        return instance;
+    }
+
+    public static int parse(BitboardBoard board, CharSequence san) {
+        return parse(board, san, 0, san.length(), new int[MoveGenerator.MAX_MOVES]);
+    }
+
+    /*
+     * retorna el movimiento legal del tablero que corresponde a la jugada entre "start" y "end", o "Move.NONE"
+     * si no hay ninguno o si la jugada es ambigua, los sufijos de jaque y de comentario ("+", "#", "!", "?")
+     * se ignoran, y el buffer se usa para generar los movimientos sin crear arreglos
+     */
+    public static int parse(BitboardBoard board, CharSequence san, int start, int end, int[] buffer) {
+        while (end > start && "+#!?".indexOf(san.charAt(end - 1)) >= 0)
+            end--;
+        if (end - start < 2)
+            return Move.NONE;
+        int count = MoveGenerator.generatePseudoLegalMoves(board, buffer); // la legalidad se verifica solo en los candidatos
+        if (san.charAt(start) == 'O' || san.charAt(start) == '0') {
+            boolean kingSide = end - start < 5;
+            for (int i = 0; i < count; i++)
+                if (Move.isCastling(buffer[i]) && (Move.to(buffer[i]) > Move.from(buffer[i])) == kingSide && MoveGenerator.isLegal(board, buffer[i]))
+                    return buffer[i];
+            return Move.NONE;
+        }
+        int piece = PieceEnum.PAWN.ordinal();
+        if ("KQRBN".indexOf(san.charAt(start)) >= 0) {
+            piece = Fen.pieceEnum(san.charAt(start)).ordinal();
+            start++;
+        }
+        int promotion = -1;
+        if (piece == PieceEnum.PAWN.ordinal() && "QRBN".indexOf(san.charAt(end - 1)) >= 0) {
+            promotion = Fen.pieceEnum(san.charAt(end - 1)).ordinal();
+            end--;
+            if (san.charAt(end - 1) == '=')
+                end--;
+        }
+        if (end - start < 2)
+            return Move.NONE;
+        char file = san.charAt(end - 2);
+        char rank = san.charAt(end - 1);
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8')
+            return Move.NONE;
+        int to = (file - 'a') + 8 * ('8' - rank);
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h')
+                fromFile = c - 'a';
+            else if (c >= '1' && c <= '8')
+                fromRank = '8' - c;
+            else if (c != 'x' && c != '-')
+                return Move.NONE;
+        }
+        int output = Move.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            if (Move.to(move) != to || Move.piece(move) != piece || Move.promotion(move) != promotion || Move.isCastling(move))
+                continue;
+            if ((fromFile >= 0 && (Move.from(move) & 7) != fromFile) || (fromRank >= 0 && (Move.from(move) >>> 3) != fromRank))
+                continue;
+            if (!MoveGenerator.isLegal(board, move))
+                continue;
+            if (output != Move.NONE)
+                return Move.NONE;
+            output = move;
+        }
+        return output;
+    }
+
+    /*
+     * escribe el movimiento legal en notacion algebraica estandar, agregando solo la columna o la fila de origen
+     * que hagan falta para distinguirlo, y "+" o "#" si da jaque o jaquemate
+     */
+    public static String toString(BitboardBoard board, int move) {
+        StringBuilder output = new StringBuilder(8);
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int from = Move.from(move);
+        int to = Move.to(move);
+        if (Move.isCastling(move))
+            output.append(to > from ? "O-O" : "O-O-O");
+        else if (Move.piece(move) == PieceEnum.PAWN.ordinal()) {
+            if (Move.isCapture(move))
+                output.append((char) ('a' + (from & 7))).append('x');
+            output.append(Move.squareName(to));
+            if (Move.isPromotion(move))
+                output.append('=').append(LETTERS.charAt(Move.promotion(move)));
+        }
+        else {
+            output.append(LETTERS.charAt(Move.piece(move)));
+            boolean ambiguous = false;
+            boolean sameFile = false;
+            boolean sameRank = false;
+            int count = MoveGenerator.generateMoves(board, buffer);
+            for (int i = 0; i < count; i++) {
+                int other = buffer[i];
+                if (other != move && Move.to(other) == to && Move.piece(other) == Move.piece(move)) {
+                    ambiguous = true;
+                    sameFile |= (Move.from(other) & 7) == (from & 7);
+                    sameRank |= (Move.from(other) >>> 3) == (from >>> 3);
+                }
+            }
+            if (ambiguous && (!sameFile || sameRank))
+                output.append((char) ('a' + (from & 7)));
+            if (ambiguous && sameFile)
+                output.append((char) ('8' - (from >>> 3)));
+            if (Move.isCapture(move))
+                output.append('x');
+            output.append(Move.squareName(to));
+        }
+        board.makeMove(move);
+        ColorEnum player = board.getSideToMove();
+        if (board.getAttackMap().isAttacked(BitboardBoard.opponent(player), board.kingSquare(player)))
+            output.append(MoveGenerator.generateMoves(board, buffer) == 0 ? '#' : '+');
+        board.unmakeMove(move);
+        return output.toString();
+    }
+}
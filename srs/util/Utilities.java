@@ -17,14 +17,13 @@ public class Utilities {
     }
 
     /*
-     * se le pasa por argumento un arraylist de posiciones y una posicion, y el metodo retornara un booleano
-     * en el caso de que exista, o no, alguna posicion en el arraylist con las mismas coordenadas que la posicion
-     * que se paso por argumento de la funcion
+     * mascara de bits con las casillas del arraylist, para consultar el conjunto entero de una vez en las tablas
+     * de ataques en lugar de posicion por posicion
      */
-    public static boolean searchPositionInArray(ArrayList<Position> positions, Position position) {
-        for (Position positionIterator : positions)
-            if (positionIterator.getX() == position.getX() && positionIterator.getY() == position.getY())
-                return true;
-        return false;
+    public static long toMask(ArrayList<Position> positions) {
+        long output = 0L;
+        for (int i = 0; i < positions.size(); i++)
+            output |= positions.get(i).getMask();
+        return output;
     }
 }
@@ -0,0 +1,67 @@
+package srs.util;
+
+/*
+ * numeros aleatorios de 64 bits para calcular la clave de una posicion como el xor de las claves
+ * de cada pieza en su casilla, del turno, de los enroques disponibles y de la columna de captura al paso
+ */
+public class Zobrist {
+
+    private static Zobrist instance;
+
+    private static final long[][] PIECE_SQUARE = new long[BitboardBoard.COLORS * BitboardBoard.PIECE_TYPES][BitboardBoard.SQUARES]; // indexada por "BitboardBoard.index(color, name)"
+    private static final long BLACK_TO_MOVE;
+    private static final long[] CASTLING = new long[16]; // indexada por la mascara de enroques de "BitboardBoard.getCastlingRights"
+    private static final long[] EN_PASSANT = new long[8]; // indexada por columna
+
+    private static long seed = 0x2545F4914F6CDD1DL; // semilla fija para que las claves sean siempre las mismas entre ejecuciones
+
+    static {
+        for (int i = 0; i < PIECE_SQUARE.length; i++)
+            for (int j = 0; j < PIECE_SQUARE[i].length; j++)
+                PIECE_SQUARE[i][j] = next();
+        BLACK_TO_MOVE = next();
+        long[] rights = new long[4];
+        for (int i = 0; i < rights.length; i++)
+            rights[i] = next();
+        for (int i = 0; i < CASTLING.length; i++) // la clave de una combinacion de enroques es el xor de la clave de cada enroque
+            for (int j = 0; j < rights.length; j++)
+                if ((i & (1 << j)) != 0)
+                    CASTLING[i] ^= rights[j];
+        for (int i = 0; i < EN_PASSANT.length; i++)
+            EN_PASSANT[i] = next();
+    }
+
+    private Zobrist() {
+
+    }
+
+    public static Zobrist getInstance() {
+        if (instance == null)
+            instance = new Zobrist();
+        return instance;
+    }
+
+    public static long pieceSquare(int index, int square) {
+        return PIECE_SQUARE[index][square];
+    }
+
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    public static long enPassant(int square) {
+        return EN_PASSANT[square & 7];
+    }
+
+    private static long next() {
+        seed += 0x9E3779B97F4A7C15L;
+        long output = seed;
+        output = (output ^ (output >>> 30)) * 0xBF58476D1CE4E5B9L;
+        output = (output ^ (output >>> 27)) * 0x94D049BB133111EBL;
+        return output ^ (output >>> 31);
+    }
+}
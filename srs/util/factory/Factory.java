@@ -1,5 +1,15 @@
 package srs.util.factory;
 
+import srs.pieces.Bishop;
+import srs.pieces.King;
+import srs.pieces.Knight;
+import srs.pieces.Pawn;
+import srs.pieces.Piece;
+import srs.pieces.Queen;
+import srs.pieces.Rook;
+import srs.util.enums.ColorEnum;
+import srs.util.enums.PieceEnum;
+
 public class Factory {
     
     private static Factory instance;
@@ -13,4 +23,33 @@ public class Factory {
             instance = new Factory();
         return instance;
     }
+
+    /*
+     * crea una pieza nueva del tipo y color pasados por parametro
+     */
+    public static Piece createPiece(PieceEnum name, ColorEnum color) {
+        switch (name) {
+            case PAWN -> {
+                return new Pawn(color);
+            }
+            case KING -> {
+                return new King(color);
+            }
+            case QUEEN -> {
+                return new Queen(color);
+            }
+            case BISHOP -> {
+                return new Bishop(color);
+            }
+            case KNIGHT -> {
+                return new Knight(color);
+            }
+            case ROOK -> {
+                return new Rook(color);
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package srs;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import srs.util.Fen;
+import srs.util.MoveGenerator;
+import srs.util.Position;
+
+/*
+ * pruebas de la seleccion de movimientos de la sesion: el enroque se reconoce eligiendo primero el rey o la torre
+ */
+public class GameSessionTest {
+
+    private static final String CASTLING = "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1";
+
+    @Test
+    public void castlingKingThenRook() {
+        GameSession session = new GameSession(Fen.load(CASTLING));
+        assertEquals(MoveGenerator.findMove(session.getBoard(), "e1g1"), session.findMove(square("e1"), square("h1")));
+        assertEquals(MoveGenerator.findMove(session.getBoard(), "e1c1"), session.findMove(square("e1"), square("a1")));
+    }
+
+    @Test
+    public void castlingRookThenKing() {
+        GameSession session = new GameSession(Fen.load(CASTLING));
+        assertEquals(MoveGenerator.findMove(session.getBoard(), "e1g1"), session.findMove(square("h1"), square("e1")));
+        assertEquals(MoveGenerator.findMove(session.getBoard(), "e1c1"), session.findMove(square("a1"), square("e1")));
+        session.changePlayer();
+        assertEquals(MoveGenerator.findMove(session.getBoard(), "e8g8"), session.findMove(square("h8"), square("e8")));
+        assertEquals(MoveGenerator.findMove(session.getBoard(), "e8c8"), session.findMove(square("a8"), square("e8")));
+    }
+
+    @Test
+    public void castlingIsPlayedFromEitherOrder() {
+        GameSession session = new GameSession(Fen.load(CASTLING));
+        session.movePiece(square("h1"), square("e1"));
+        session.changePlayer();
+        session.movePiece(square("e8"), square("a8"));
+        assertEquals("2kr3r/8/8/8/8/8/8/R4RK1 w - - 2 2", Fen.toString(session.getBoard()));
+    }
+
+    private static Position square(String name) {
+        return Position.of(name.charAt(0) - 'a', '8' - name.charAt(1));
+    }
+}
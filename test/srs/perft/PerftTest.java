@@ -0,0 +1,72 @@
+package srs.perft;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import srs.util.BitboardBoard;
+import srs.util.Fen;
+
+/*
+ * compara perft de las posiciones de prueba de "Perft" con los valores publicados hasta profundidad 4,
+ * para que cualquier error del generador de movimientos o de "makeMove" y "unmakeMove" haga fallar la prueba
+ *
+ * uso: "javac -cp lib/junit-4.13.2.jar:<clases> -d <destino> $(find test -name '*.java')" y luego
+ * "java -cp lib/junit-4.13.2.jar:lib/hamcrest-core-1.3.jar:<clases>:<destino> org.junit.runner.JUnitCore srs.perft.PerftTest"
+ */
+public class PerftTest {
+
+    private static final int MAX_DEPTH = 4;
+
+    @Test
+    public void initialPieces() {
+        check("Game.initializePieces", Perft.initialBoard(), Perft.EXPECTED[0]);
+    }
+
+    @Test
+    public void startPosition() {
+        check(0);
+    }
+
+    @Test
+    public void kiwipete() {
+        check(1);
+    }
+
+    @Test
+    public void endgameWithEnPassant() {
+        check(2);
+    }
+
+    @Test
+    public void promotions() {
+        check(3);
+    }
+
+    @Test
+    public void promotionWithCheck() {
+        check(4);
+    }
+
+    @Test
+    public void middlegame() {
+        check(5);
+    }
+
+    private static void check(int position) {
+        check(Perft.POSITIONS[position], Fen.load(Perft.POSITIONS[position]), Perft.EXPECTED[position]);
+    }
+
+    /*
+     * ademas de los nodos, verifica que el recorrido deje el tablero como estaba
+     */
+    private static void check(String name, BitboardBoard board, long[] expected) {
+        String fen = Fen.toString(board);
+        long key = board.getKey();
+        Perft perft = new Perft(board);
+        for (int depth = 1; depth <= expected.length && depth <= MAX_DEPTH; depth++)
+            assertEquals(name + " perft(" + depth + ")", expected[depth - 1], perft.perft(depth));
+        assertEquals(name, fen, Fen.toString(board));
+        assertEquals(name, key, board.getKey());
+    }
+}
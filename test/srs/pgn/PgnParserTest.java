@@ -0,0 +1,60 @@
+package srs.pgn;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import srs.util.BitboardBoard;
+import srs.util.Fen;
+import srs.util.GameRecord;
+
+/*
+ * pruebas del lector de PGN: comentarios, variantes, NAGs y numeros de jugada se saltan, y la etiqueta FEN
+ * fija la posicion inicial
+ */
+public class PgnParserTest {
+
+    private static final String GAME = """
+            [Event "prueba"]
+            [SetUp "1"]
+            [FEN "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1"]
+            [Result "1/2-1/2"]
+
+            1. O-O {enroque corto} (1. O-O-O O-O-O (1... Kd7) 2. Kb1) 1... 0-0-0 $1 ; comentario de linea
+            2. Rfd1 Rxd1+!? 3.Rxd1 3...Kc7 1/2-1/2
+            """;
+
+    @Test
+    public void gameWithCommentsVariationsAndFen() {
+        PgnGame game = parse(GAME);
+        assertTrue(game.isComplete());
+        assertEquals("1/2-1/2", game.getResult());
+        assertEquals("prueba", game.getTag("Event"));
+        assertEquals(6, game.getMoves().length);
+        assertEquals(6, game.getMovements().size());
+
+        GameRecord record = game.getRecord();
+        assertEquals("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", record.getStartFen());
+        assertEquals(GameRecord.DRAW, record.getResult());
+        BitboardBoard board = new BitboardBoard();
+        assertEquals(6, record.replay(board));
+        assertEquals("7r/2k5/8/8/8/8/8/3R2K1 w - - 1 4", Fen.toString(board));
+    }
+
+    @Test
+    public void illegalMoveMarksGameIncomplete() {
+        PgnGame game = parse("[Result \"1-0\"]\n\n1. e4 e5 2. Ke3 Nc6 1-0\n");
+        assertFalse(game.isComplete());
+        assertEquals(2, game.getMoves().length);
+    }
+
+    private static PgnGame parse(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return new PgnParser().parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+}
@@ -0,0 +1,67 @@
+package srs.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/*
+ * pruebas de la pila de movimientos del tablero: deshacer restaura la posicion y las claves, y la repeticion
+ * tiene en cuenta la historia de las copias
+ */
+public class BitboardBoardTest {
+
+    @Test
+    public void repetitionIncludesHistoryOfCopies() {
+        BitboardBoard board = Fen.load("6k1/5ppp/8/8/8/8/5PPP/6K1 w - - 0 1");
+        for (String move : new String[] {"g1f1", "g8f8", "f1g1", "f8g8"}) {
+            assertFalse(board.isRepetition());
+            board.makeMove(MoveGenerator.findMove(board, move));
+        }
+        assertTrue(board.isRepetition());
+        BitboardBoard copy = board.copy();
+        assertTrue(copy.isRepetition());
+        copy.makeMove(MoveGenerator.findMove(copy, "g1f1"));
+        assertTrue(copy.isRepetition());
+        copy.makeMove(MoveGenerator.findMove(copy, "h7h6"));
+        assertFalse(copy.isRepetition());
+    }
+
+    @Test
+    public void makeAndUnmakeRestoreState() {
+        for (String fen : new String[] {Fen.START_POSITION, "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"})
+            walk(Fen.load(fen), 2);
+    }
+
+    private static void walk(BitboardBoard board, int depth) {
+        if (depth == 0)
+            return;
+        String fen = Fen.toString(board);
+        long key = board.getKey();
+        long pawnKey = board.getPawnKey();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateMoves(board, moves);
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            walk(board, depth - 1);
+            board.unmakeMove(moves[i]);
+            assertEquals(fen, Fen.toString(board));
+            assertEquals(key, board.getKey());
+            assertEquals(pawnKey, board.getPawnKey());
+        }
+    }
+
+    @Test
+    public void unmakeLastMoveRestoresStart() {
+        BitboardBoard board = Fen.load(Fen.START_POSITION);
+        long key = board.getKey();
+        for (String move : new String[] {"e2e4", "d7d5", "e4d5", "g8f6", "f1b5", "c7c6", "d5c6", "d8d2", "b1d2"})
+            board.makeMove(MoveGenerator.findMove(board, move));
+        while (board.unmakeLastMove() != Move.NONE);
+        assertEquals(Fen.START_POSITION, Fen.toString(board));
+        assertEquals(key, board.getKey());
+        assertEquals(0, board.getPly());
+    }
+}
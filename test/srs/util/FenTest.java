@@ -0,0 +1,37 @@
+package srs.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/*
+ * cargar un fen y volver a escribirlo debe dar el mismo texto, incluyendo enroques, captura al paso y contadores
+ */
+public class FenTest {
+
+    private static final String[] POSITIONS = {
+        Fen.START_POSITION,
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+        "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+        "4k3/8/8/8/8/8/8/4K2R b K - 12 40"
+    };
+
+    @Test
+    public void roundTrip() {
+        for (String fen : POSITIONS)
+            assertEquals(fen, Fen.toString(Fen.load(fen)));
+    }
+
+    @Test
+    public void loadIntoExistingBoard() {
+        BitboardBoard board = Fen.load(POSITIONS[1]);
+        for (String fen : POSITIONS) {
+            Fen.load(fen, board);
+            assertEquals(fen, Fen.toString(board));
+            assertEquals(fen, Fen.load(fen).getKey(), board.getKey());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package srs.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/*
+ * pruebas del archivo de partidas: lo que se escribe se vuelve a leer con los mismos movimientos, posicion inicial
+ * y resultado, y al reproducirlo se llega a la misma posicion final
+ */
+public class GameArchiveTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writeAndReadBack() throws IOException {
+        ArrayList<GameRecord> games = new ArrayList<>();
+        games.add(record(null, GameRecord.WHITE_WINS, "e2e4", "e7e5", "g1f3", "b8c6", "f1b5"));
+        games.add(record("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", GameRecord.BLACK_WINS, "e1g1", "e8c8", "f1f8", "d8f8"));
+        games.add(record("8/P7/8/8/8/8/8/k1K5 w - - 0 1", GameRecord.DRAW, "a7a8n", "a1a2"));
+        games.add(record(null, GameRecord.UNKNOWN));
+        games.add(longGame(200));
+        assertTrue(games.get(4).size() > 127); // la cantidad de medios movimientos ocupa 2 bytes
+
+        Path path = folder.newFile("partidas.srsg").toPath();
+        try (GameArchive.Writer writer = GameArchive.newWriter(path)) {
+            for (GameRecord game : games)
+                writer.write(game);
+            assertEquals(games.size(), writer.getGames());
+        }
+
+        GameRecord read = new GameRecord();
+        try (GameArchive.Reader reader = GameArchive.newReader(path)) {
+            for (GameRecord game : games) {
+                assertTrue(reader.next(read));
+                assertEquals(game.getStartFen(), read.getStartFen());
+                assertEquals(game.getResult(), read.getResult());
+                assertEquals(game.size(), read.size());
+                for (int i = 0; i < game.size(); i++)
+                    assertEquals(game.getMove(i), read.getMove(i));
+                assertEquals(finalPosition(game), finalPosition(read));
+            }
+            assertFalse(reader.next(read));
+        }
+    }
+
+    private static GameRecord record(String fen, int result, String... moves) {
+        GameRecord record = new GameRecord();
+        record.setStartFen(fen);
+        record.setResult(result);
+        BitboardBoard board = Fen.load(fen != null ? fen : Fen.START_POSITION);
+        for (String name : moves) {
+            int move = MoveGenerator.findMove(board, name);
+            assertTrue(name, move != Move.NONE);
+            record.add(move);
+            board.makeMove(move);
+        }
+        return record;
+    }
+
+    /*
+     * partida determinista que elige entre los movimientos legales segun el numero de medio movimiento
+     */
+    private static GameRecord longGame(int plies) {
+        GameRecord record = new GameRecord();
+        record.setResult(GameRecord.DRAW);
+        BitboardBoard board = Fen.load(Fen.START_POSITION);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int ply = 0; ply < plies; ply++) {
+            int count = MoveGenerator.generateMoves(board, moves);
+            if (count == 0)
+                break;
+            int move = moves[(ply * 7) % count];
+            record.add(move);
+            board.makeMove(move);
+        }
+        return record;
+    }
+
+    private static String finalPosition(GameRecord record) {
+        BitboardBoard board = new BitboardBoard();
+        assertEquals(record.size(), record.replay(board));
+        return Fen.toString(board);
+    }
+}
@@ -0,0 +1,105 @@
+package srs.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/*
+ * pruebas de la notacion algebraica estandar: todo movimiento legal escrito con "toString" se vuelve a leer
+ * como el mismo movimiento, y los casos de desambiguacion, promocion, enroque y sufijos se leen como se espera
+ */
+public class SanTest {
+
+    private static final String[] POSITIONS = {
+        Fen.START_POSITION,
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+        "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"
+    };
+
+    @Test
+    public void roundTrip() {
+        for (String fen : POSITIONS)
+            walk(Fen.load(fen), 2);
+    }
+
+    private static void walk(BitboardBoard board, int depth) {
+        if (depth == 0)
+            return;
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateMoves(board, moves);
+        for (int i = 0; i < count; i++) {
+            String san = San.toString(board, moves[i]);
+            assertEquals(Fen.toString(board) + " " + san, moves[i], San.parse(board, san));
+            board.makeMove(moves[i]);
+            walk(board, depth - 1);
+            board.unmakeMove(moves[i]);
+        }
+    }
+
+    @Test
+    public void disambiguateByFile() {
+        check("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1", "b1d2", "Nbd2");
+    }
+
+    @Test
+    public void disambiguateByRank() {
+        check("4k3/8/8/R7/8/8/8/R3K3 w - - 0 1", "a1a3", "R1a3");
+    }
+
+    @Test
+    public void disambiguateByFileAndRank() {
+        check("4k3/8/8/8/8/Q7/8/Q1Q1K3 w - - 0 1", "a1b2", "Qa1b2");
+    }
+
+    @Test
+    public void ambiguousMoveIsRejected() {
+        assertEquals(Move.NONE, San.parse(Fen.load("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1"), "Nd2"));
+    }
+
+    @Test
+    public void promotionWithAndWithoutEquals() {
+        BitboardBoard board = Fen.load("8/P7/8/8/8/8/8/k1K5 w - - 0 1");
+        int move = promotion(board, "a7a8", 'q');
+        assertEquals("a8=Q#", San.toString(board, move));
+        for (String san : new String[] {"a8=Q", "a8Q", "a8=Q#", "a8Q+"})
+            assertEquals(san, move, San.parse(board, san));
+        assertEquals(promotion(board, "a7a8", 'n'), San.parse(board, "a8=N"));
+    }
+
+    @Test
+    public void castlingWithLettersAndZeros() {
+        BitboardBoard board = Fen.load("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        int kingSide = MoveGenerator.findMove(board, "e1g1");
+        int queenSide = MoveGenerator.findMove(board, "e1c1");
+        assertTrue(Move.isCastling(kingSide) && Move.isCastling(queenSide));
+        assertEquals("O-O", San.toString(board, kingSide));
+        assertEquals("O-O-O", San.toString(board, queenSide));
+        assertEquals(kingSide, San.parse(board, "O-O"));
+        assertEquals(kingSide, San.parse(board, "0-0+"));
+        assertEquals(queenSide, San.parse(board, "O-O-O"));
+        assertEquals(queenSide, San.parse(board, "0-0-0"));
+    }
+
+    @Test
+    public void suffixesAreIgnored() {
+        BitboardBoard board = Fen.load(Fen.START_POSITION);
+        int move = MoveGenerator.findMove(board, "g1f3");
+        for (String san : new String[] {"Nf3", "Nf3!", "Nf3?!", "Ng1f3", "Ng1-f3", "Nf3!!"})
+            assertEquals(san, move, San.parse(board, san));
+    }
+
+    private static void check(String fen, String uci, String san) {
+        BitboardBoard board = Fen.load(fen);
+        int move = MoveGenerator.findMove(board, uci);
+        assertEquals(san, San.toString(board, move));
+        assertEquals(move, San.parse(board, san));
+    }
+
+    private static int promotion(BitboardBoard board, String uci, char piece) {
+        return MoveGenerator.findMove(board, uci + piece);
+    }
+}
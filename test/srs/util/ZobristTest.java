@@ -0,0 +1,46 @@
+package srs.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/*
+ * la clave zobrist que "BitboardBoard" actualiza en cada movimiento debe ser la misma que la de cargar la posicion
+ * desde cero, se recorren todos los movimientos legales hasta profundidad 2 de posiciones con enroques,
+ * capturas al paso y promociones
+ */
+public class ZobristTest {
+
+    private static final String[] POSITIONS = {
+        Fen.START_POSITION,
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"
+    };
+
+    @Test
+    public void incrementalKeyMatchesLoadedPosition() {
+        for (String fen : POSITIONS)
+            walk(Fen.load(fen), 2);
+    }
+
+    @Test
+    public void sideToMoveChangesKey() {
+        assertEquals(Zobrist.blackToMove(), Fen.load("8/8/8/4k3/8/8/8/4K3 w - - 0 1").getKey() ^ Fen.load("8/8/8/4k3/8/8/8/4K3 b - - 0 1").getKey());
+    }
+
+    private static void walk(BitboardBoard board, int depth) {
+        if (depth == 0)
+            return;
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateMoves(board, moves);
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            String fen = Fen.toString(board);
+            assertEquals(fen, Fen.load(fen).getKey(), board.getKey());
+            walk(board, depth - 1);
+            board.unmakeMove(moves[i]);
+        }
+    }
+}